@@ -3,9 +3,11 @@ package service.media;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableMongoRepositories(basePackages = "service.media.mongo_repo")
+@EnableScheduling
 public class MediaServiceApplication {
 
     public static void main(String[] args) {
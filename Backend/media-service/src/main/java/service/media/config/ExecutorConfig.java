@@ -0,0 +1,55 @@
+package service.media.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+    private static final Logger log = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    /**
+     * Pool for image variant generation. Decoding is CPU and memory heavy, so both the worker
+     * count and the backlog are bounded; work beyond the backlog is dropped and the original
+     * keeps being served for that media.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService variantExecutor(@Value("${media.variants.workers:2}") int workers,
+                                           @Value("${media.variants.queue-capacity:100}") int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread t = new Thread(r, "media-variants-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            (r, executor) -> log.warn("Variant queue full, skipping variant generation"));
+    }
+
+    /**
+     * Pool storing the files of a batch upload in parallel. The request thread waits for the
+     * result, so instead of dropping work a full queue makes the caller store the file itself.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService uploadExecutor(@Value("${media.upload.batch.workers:4}") int workers,
+                                          @Value("${media.upload.batch.queue-capacity:50}") int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            r -> {
+                Thread t = new Thread(r, "media-upload-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -3,27 +3,39 @@ package service.media.controllers;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import service.media.dtos.MediaDtos;
+import service.media.services.ChunkedUploadService;
 import service.media.services.MediaService;
+import service.media.services.VariantSize;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/media")
 public class MediaController {
     private static final Logger log = LoggerFactory.getLogger(MediaController.class);
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
 
     private final MediaService mediaService;
+    private final ChunkedUploadService chunkedUploadService;
 
     @Autowired
-    public MediaController(MediaService mediaService) {
+    public MediaController(MediaService mediaService, ChunkedUploadService chunkedUploadService) {
         this.mediaService = mediaService;
+        this.chunkedUploadService = chunkedUploadService;
     }
 
     @PreAuthorize("hasRole('SELLER')")
@@ -36,6 +48,55 @@ public class MediaController {
         return ResponseEntity.ok(mediaService.uploadMedia(file, productId));
     }
 
+    // A whole product gallery in one request; ids come back in the order the files were sent
+    @PreAuthorize("hasRole('SELLER')")
+    @PostMapping(value = "/upload/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<List<MediaDtos.MediaUploadResponse>> uploadMediaBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "productId", required = false) String productId) {
+        log.info("Uploading batch of {} files, productId: {}", files.size(), productId);
+        return ResponseEntity.ok(mediaService.uploadMediaBatch(files, productId));
+    }
+
+    // Resumable upload: open a session, PUT chunks at increasing offsets, then complete
+    @PreAuthorize("hasRole('SELLER')")
+    @PostMapping("/uploads")
+    public ResponseEntity<MediaDtos.UploadSessionResponse> initUpload(
+            @RequestBody MediaDtos.UploadInitRequest request, Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+            .body(chunkedUploadService.init(request, authentication.getName()));
+    }
+
+    @PreAuthorize("hasRole('SELLER')")
+    @GetMapping("/uploads/{uploadId}")
+    public MediaDtos.UploadSessionResponse getUploadStatus(@PathVariable String uploadId,
+                                                           Authentication authentication) {
+        return chunkedUploadService.status(uploadId, authentication.getName());
+    }
+
+    @PreAuthorize("hasRole('SELLER')")
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public MediaDtos.UploadSessionResponse uploadChunk(@PathVariable String uploadId,
+                                                       @RequestParam("offset") long offset,
+                                                       InputStream body,
+                                                       Authentication authentication) {
+        return chunkedUploadService.appendChunk(uploadId, offset, body, authentication.getName());
+    }
+
+    @PreAuthorize("hasRole('SELLER')")
+    @PostMapping("/uploads/{uploadId}/complete")
+    public ResponseEntity<MediaDtos.MediaUploadResponse> completeUpload(@PathVariable String uploadId,
+                                                                        Authentication authentication) {
+        return ResponseEntity.ok(chunkedUploadService.complete(uploadId, authentication.getName()));
+    }
+
+    @PreAuthorize("hasRole('SELLER')")
+    @DeleteMapping("/uploads/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId, Authentication authentication) {
+        chunkedUploadService.abort(uploadId, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping
     public List<MediaDtos.MediaResponse> getAllMedia() {
         return mediaService.getAllMedia();
@@ -46,33 +107,53 @@ public class MediaController {
         return mediaService.getMediaByProductId(productId);
     }
 
+    // Batch lookup: one query for the media of many products
+    @PostMapping("/by-products")
+    public Map<String, List<MediaDtos.MediaResponse>> getMediaByProductIds(
+            @RequestBody MediaDtos.ProductIdsRequest request) {
+        return mediaService.getMediaByProductIds(request.productIds());
+    }
+
     @GetMapping("/{id}/info")
     public MediaDtos.MediaResponse getMediaInfo(@PathVariable String id) {
         return mediaService.getMediaById(id);
     }
 
+    // Streams the file; Spring answers Range requests with 206 Partial Content and
+    // If-None-Match / If-Modified-Since with 304 before the file is opened
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> getMediaFile(@PathVariable String id) {
-        byte[] fileContent = mediaService.getMediaFile(id);
-
-        String contentType = "application/octet-stream";
-        if (fileContent.length > 4) {
-            if (fileContent[0] == (byte) 0x89 && fileContent[1] == (byte) 0x50
-                    && fileContent[2] == (byte) 0x4E && fileContent[3] == (byte) 0x47) {
-                contentType = "image/png";
-            } else if (fileContent[0] == (byte) 0xFF && fileContent[1] == (byte) 0xD8) {
-                contentType = "image/jpeg";
-            } else if (fileContent[0] == (byte) 0x47 && fileContent[1] == (byte) 0x49
-                    && fileContent[2] == (byte) 0x46) {
-                contentType = "image/gif";
-            }
-        }
+    public ResponseEntity<Resource> getMediaFile(@PathVariable String id,
+                                                 @RequestParam(value = "size", required = false) String size) {
+        MediaService.MediaFile file = mediaService.getMediaFile(id, VariantSize.fromKey(size));
+        return cacheable(file).body(file.resource());
+    }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(contentType));
-        headers.setContentLength(fileContent.length);
+    // Headers only, answered from the stored metadata without opening the file
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Resource> headMediaFile(@PathVariable String id,
+                                                  @RequestParam(value = "size", required = false) String size) {
+        MediaService.MediaFile file = mediaService.getMediaFile(id, VariantSize.fromKey(size));
+        if (file.contentLength() < 0) {
+            // Uploaded before metadata was recorded, so the length comes from the file
+            return cacheable(file).body(file.resource());
+        }
+        return cacheable(file)
+            .contentLength(file.contentLength())
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .build();
+    }
 
-        return ResponseEntity.ok().headers(headers).body(fileContent);
+    // Stored media is immutable, so clients and proxies may keep it for a year without revalidating;
+    // an original standing in for a pending variant is revalidated until the variant exists
+    private static ResponseEntity.BodyBuilder cacheable(MediaService.MediaFile file) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(file.contentType()))
+            .cacheControl(file.immutable() ? IMMUTABLE : CacheControl.noCache())
+            .eTag(file.etag());
+        if (file.lastModified() != null) {
+            builder.lastModified(file.lastModified());
+        }
+        return builder;
     }
 
     @PreAuthorize("hasRole('SELLER')")
@@ -90,4 +171,12 @@ public class MediaController {
         log.info("All media deleted for product: {}", productId);
         return ResponseEntity.ok(new MediaDtos.MessageResponse("All media deleted successfully"));
     }
+
+    // Internal endpoint for product-service to cascade-delete the media of many products at once
+    @PostMapping("/internal/products/delete")
+    public ResponseEntity<MediaDtos.MessageResponse> deleteAllMediaByProductIds(
+            @RequestBody MediaDtos.ProductIdsRequest request) {
+        int deleted = mediaService.deleteAllMediaByProductIds(request.productIds());
+        return ResponseEntity.ok(new MediaDtos.MessageResponse("Deleted " + deleted + " media files"));
+    }
 }
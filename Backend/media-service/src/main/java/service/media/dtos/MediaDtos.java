@@ -1,10 +1,18 @@
 package service.media.dtos;
 
+import java.util.List;
+
 public class MediaDtos {
     public record MediaResponse(
             String id,
             String productId,
-            String downloadUrl
+            String downloadUrl,
+            String contentType,
+            long size,
+            String createdAt,
+            Integer width,
+            Integer height,
+            String placeholder
     ) {}
 
     public record MediaUploadResponse(
@@ -13,7 +21,24 @@ public class MediaDtos {
             String downloadUrl
     ) {}
 
+    public record ProductIdsRequest(
+            List<String> productIds
+    ) {}
+
     public record MessageResponse(
             String message
     ) {}
+
+    public record UploadInitRequest(
+            String fileName,
+            String contentType,
+            long size,
+            String productId
+    ) {}
+
+    public record UploadSessionResponse(
+            String uploadId,
+            long offset,
+            long size
+    ) {}
 }
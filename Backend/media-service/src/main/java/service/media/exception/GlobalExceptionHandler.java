@@ -47,5 +47,15 @@ public class GlobalExceptionHandler {
         response.put(MESSAGE_KEY, ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
-}
 
+    @ExceptionHandler(UploadConflictException.class)
+    public ResponseEntity<Map<String, String>> handleUploadConflict(UploadConflictException ex) {
+        log.warn("Upload conflict: {}", ex.getMessage());
+        Map<String, String> response = new HashMap<>();
+        response.put(STATUS_KEY, ERROR_STATUS);
+        response.put(MESSAGE_KEY, ex.getMessage());
+        // Tells the client where to resume from
+        response.put("offset", String.valueOf(ex.getOffset()));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+}
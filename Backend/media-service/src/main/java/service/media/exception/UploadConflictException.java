@@ -0,0 +1,17 @@
+package service.media.exception;
+
+/**
+ * A chunk that does not continue an upload session where it currently stands.
+ */
+public class UploadConflictException extends RuntimeException {
+    private final long offset;
+
+    public UploadConflictException(String message, long offset) {
+        super(message);
+        this.offset = offset;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,53 @@
+package service.media.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Which instance currently runs a background job that must not run on several at once. The id is
+ * the job name; a lease that has expired may be taken over by any instance.
+ */
+@Document(collection = "job_leases")
+public class JobLease {
+    @Id
+    private String id;
+
+    private String holder; // Instance id of the current runner
+    private Instant expiresAt;
+
+    // Default constructor for MongoDB deserialization
+    public JobLease() {
+    }
+
+    public JobLease(String id, String holder, Instant expiresAt) {
+        this.id = id;
+        this.holder = holder;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getHolder() {
+        return holder;
+    }
+
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -2,18 +2,40 @@ package service.media.models;
 
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
 @Document(collection = "media")
 public class Media {
     @Id
     private String id;
 
     @NotBlank(message = "File path is required")
+    @Indexed // Storage reconciliation looks files up by path
     private String filePath;
 
+    @Indexed // Backs per-product and batched $in lookups
     private String productId; // Optional field to link media to a product
 
+    // Recorded at upload so downloads can set headers without touching the file
+    private String contentType;
+    private long size;
+    private String contentHash; // hex SHA-256 of the stored bytes
+    private Instant createdAt;
+
+    // Pixel dimensions and a tiny data-URI preview, so pages can lay out and blur in images
+    // before fetching them; null when not known yet
+    private Integer width;
+    private Integer height;
+    private String placeholder;
+
+    // Downscaled renditions keyed by size name ("thumb", "medium"), filled in after upload
+    private Map<String, MediaVariant> variants = new HashMap<>();
+
     // Default constructor for MongoDB deserialization
     public Media() {
     }
@@ -49,5 +71,68 @@ public class Media {
     public void setProductId(String productId) {
         this.productId = productId;
     }
-}
 
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Map<String, MediaVariant> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(Map<String, MediaVariant> variants) {
+        this.variants = variants;
+    }
+
+    public Integer getWidth() {
+        return width;
+    }
+
+    public void setWidth(Integer width) {
+        this.width = width;
+    }
+
+    public Integer getHeight() {
+        return height;
+    }
+
+    public void setHeight(Integer height) {
+        this.height = height;
+    }
+
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    public void setPlaceholder(String placeholder) {
+        this.placeholder = placeholder;
+    }
+}
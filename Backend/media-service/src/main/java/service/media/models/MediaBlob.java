@@ -0,0 +1,118 @@
+package service.media.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One stored file, shared by every {@link Media} whose bytes hash to the same SHA-256.
+ * The id is the hex digest. When {@code refCount} drops to zero the blob is tombstoned with
+ * {@code releasedAt}, and the garbage collector removes the file once that is old enough: it first
+ * claims the blob with a {@code purgeToken}, which stops uploads of the same bytes from reviving it
+ * until the file and then the document are gone.
+ */
+@Document(collection = "media_blobs")
+public class MediaBlob {
+    @Id
+    private String id;
+
+    @Indexed // Storage reconciliation looks files up by path
+    private String filePath;
+    private long size;
+    private long refCount;
+    private Instant createdAt;
+
+    @Indexed(sparse = true)
+    private Instant releasedAt; // Set while unreferenced, cleared when the bytes are uploaded again
+
+    private Instant corruptAt; // Set when the scrubber quarantined the file, cleared when it is stored again
+
+    private String purgeToken; // Set while a garbage collector deletes the file; identifies that run
+    private Instant purgeStartedAt; // An older claim is treated as abandoned
+
+    // Default constructor for MongoDB deserialization
+    public MediaBlob() {
+    }
+
+    public MediaBlob(String id, String filePath, long size, long refCount, Instant createdAt) {
+        this.id = id;
+        this.filePath = filePath;
+        this.size = size;
+        this.refCount = refCount;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public long getRefCount() {
+        return refCount;
+    }
+
+    public void setRefCount(long refCount) {
+        this.refCount = refCount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getReleasedAt() {
+        return releasedAt;
+    }
+
+    public void setReleasedAt(Instant releasedAt) {
+        this.releasedAt = releasedAt;
+    }
+
+    public Instant getCorruptAt() {
+        return corruptAt;
+    }
+
+    public void setCorruptAt(Instant corruptAt) {
+        this.corruptAt = corruptAt;
+    }
+
+    public String getPurgeToken() {
+        return purgeToken;
+    }
+
+    public void setPurgeToken(String purgeToken) {
+        this.purgeToken = purgeToken;
+    }
+
+    public Instant getPurgeStartedAt() {
+        return purgeStartedAt;
+    }
+
+    public void setPurgeStartedAt(Instant purgeStartedAt) {
+        this.purgeStartedAt = purgeStartedAt;
+    }
+}
@@ -0,0 +1,64 @@
+package service.media.models;
+
+/**
+ * A downscaled rendition of a {@link Media}, stored as its own content-addressed blob.
+ */
+public class MediaVariant {
+    private String contentHash;
+    private String contentType;
+    private long size;
+    private int width;
+    private int height;
+
+    // Default constructor for MongoDB deserialization
+    public MediaVariant() {
+    }
+
+    public MediaVariant(String contentHash, String contentType, long size, int width, int height) {
+        this.contentHash = contentHash;
+        this.contentType = contentType;
+        this.size = size;
+        this.width = width;
+        this.height = height;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+}
@@ -0,0 +1,23 @@
+package service.media.mongo_repo;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+import service.media.models.JobLease;
+
+import java.time.Instant;
+
+public interface JobLeaseRepository extends MongoRepository<JobLease, String> {
+    /**
+     * Takes the lease for {@code holder} if it has expired or is already theirs. Returns the
+     * number of leases modified.
+     */
+    @Query("{ '_id': ?0, '$or': [ { 'expiresAt': { '$lt': ?2 } }, { 'holder': ?1 } ] }")
+    @Update("{ '$set': { 'holder': ?1, 'expiresAt': ?3 } }")
+    long takeIfFree(String id, String holder, Instant now, Instant expiresAt);
+
+    @Update("{ '$set': { 'expiresAt': ?2 } }")
+    long findAndSetExpiresAtByIdAndHolder(String id, String holder, Instant expiresAt);
+
+    long deleteByIdAndHolder(String id, String holder);
+}
@@ -0,0 +1,61 @@
+package service.media.mongo_repo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
+import service.media.models.MediaBlob;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface MediaBlobRepository extends MongoRepository<MediaBlob, String> {
+    /**
+     * Atomically takes a reference, reviving a tombstoned blob unless a garbage collector claimed
+     * it after {@code abandonedBefore}. Returns the number of blobs modified. The caller guarantees
+     * the file is in place, so any earlier corruption mark no longer applies.
+     */
+    @Query("{ '_id': ?0, '$or': [ { 'purgeToken': { '$exists': false } }, { 'purgeStartedAt': { '$lt': ?1 } } ] }")
+    @Update("{ '$inc': { 'refCount': 1 }, '$unset': { 'releasedAt': '', 'corruptAt': '', 'purgeToken': '', 'purgeStartedAt': '' } }")
+    long incrementRefCountUnlessPurging(String id, Instant abandonedBefore);
+
+    @Update("{ '$inc': { 'refCount': -1 } }")
+    long findAndDecrementRefCountById(String id);
+
+    @Update("{ '$set': { 'releasedAt': ?2 } }")
+    long findAndSetReleasedAtByIdAndRefCountLessThanEqual(String id, long refCount, Instant releasedAt);
+
+    /**
+     * Claims a blob tombstoned before {@code releasedBefore} for deletion, unless another claim
+     * newer than {@code abandonedBefore} holds it. Returns the number of blobs claimed.
+     */
+    @Query("{ '_id': ?0, 'refCount': { '$lte': 0 }, 'releasedAt': { '$lt': ?1 }, "
+        + "'$or': [ { 'purgeToken': { '$exists': false } }, { 'purgeStartedAt': { '$lt': ?2 } } ] }")
+    @Update("{ '$set': { 'purgeToken': ?3, 'purgeStartedAt': ?4 } }")
+    long claimPurge(String id, Instant releasedBefore, Instant abandonedBefore, String purgeToken, Instant now);
+
+    @Update("{ '$unset': { 'purgeToken': '', 'purgeStartedAt': '' } }")
+    long findAndClearPurgeByIdAndPurgeToken(String id, String purgeToken);
+
+    long deleteByIdAndPurgeToken(String id, String purgeToken);
+
+    List<MediaBlob> findByRefCountLessThanEqualAndReleasedAtBefore(long refCount, Instant cutoff, Pageable pageable);
+
+    @Query(value = "{ '$or': [ { 'filePath': { '$in': ?0 } }, { '_id': { '$in': ?1 } } ] }", fields = "{ 'filePath': 1 }")
+    List<MediaBlob> findByFilePathInOrIdIn(Collection<String> filePaths, Collection<String> ids);
+
+    @Update("{ '$set': { 'filePath': ?1 } }")
+    long findAndSetFilePathById(String id, String filePath);
+
+    // Keyset pagination over blobs whose file is still flat, for the storage migration
+    List<MediaBlob> findByIdGreaterThanAndFilePathNotContaining(String id, String fragment, Pageable pageable);
+
+    // Keyset pagination over referenced blobs in id order, for the integrity scrubber
+    List<MediaBlob> findByIdGreaterThanAndRefCountGreaterThan(String id, long refCount, Pageable pageable);
+
+    long countByRefCountGreaterThan(long refCount);
+
+    @Update("{ '$set': { 'corruptAt': ?1 } }")
+    long findAndSetCorruptAtById(String id, Instant corruptAt);
+}
@@ -1,10 +1,39 @@
 package service.media.mongo_repo;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 import service.media.models.Media;
+import service.media.models.MediaVariant;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface MediaRepository extends MongoRepository<Media, String> {
     List<Media> findByProductId(String productId);
-}
\ No newline at end of file
+
+    List<Media> findByProductIdIn(Collection<String> productIds);
+
+    /**
+     * Records generated variants without rewriting the rest of the document. Returns 0 when
+     * the media was deleted while they were being generated.
+     */
+    @Update("{ '$set': { 'variants': ?1, 'placeholder': ?2, 'width': ?3, 'height': ?4 } }")
+    long findAndSetRenditionsById(String id, Map<String, MediaVariant> variants, String placeholder,
+                                  int width, int height);
+
+    @Update("{ '$set': { 'filePath': ?1 } }")
+    long findAndSetFilePathById(String id, String filePath);
+
+    /** Re-points every media stored at {@code filePath}, e.g. all users of a blob that moved. */
+    @Update("{ '$set': { 'filePath': ?1 } }")
+    long findAndSetFilePathByFilePath(String filePath, String newFilePath);
+
+    // Keyset pagination over media whose file is still flat, for the storage migration
+    List<Media> findByIdGreaterThanAndFilePathNotContaining(String id, String fragment, Pageable pageable);
+
+    @Query(value = "{ 'filePath': { '$in': ?0 } }", fields = "{ 'filePath': 1 }")
+    List<Media> findByFilePathIn(Collection<String> filePaths);
+}
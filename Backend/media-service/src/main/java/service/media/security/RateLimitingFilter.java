@@ -3,6 +3,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +12,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 /**
  * Rate limiting filter to prevent abuse of upload endpoints.
  * Limits requests per IP address per time window.
@@ -28,8 +30,8 @@ public class RateLimitingFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        // Only apply rate limiting to upload endpoint
-        if (!request.getRequestURI().contains("/api/media/upload")) {
+        // Only apply rate limiting to starting an upload; chunks of an open session are not counted
+        if (!isUploadStart(request)) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -38,27 +40,47 @@ public class RateLimitingFilter extends OncePerRequestFilter {
         cleanupOldEntries();
         // Get or create rate limit data for this IP
         RateLimitData rateLimitData = rateLimitMap.computeIfAbsent(clientIp, k -> new RateLimitData());
-        synchronized (rateLimitData) {
-            long currentTime = System.currentTimeMillis();
-            // Reset counter if time window has passed
-            if (currentTime - rateLimitData.windowStart > timeWindowMs) {
-                rateLimitData.requestCount.set(0);
-                rateLimitData.windowStart = currentTime;
-            }
-            // Check if limit exceeded
-            if (rateLimitData.requestCount.get() >= maxRequestsPerMinute) {
-                log.warn("Rate limit exceeded for IP: {}, requests: {}", clientIp, rateLimitData.requestCount.get());
-                response.setStatus(429); // Too Many Requests
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\":\"Rate limit exceeded. Maximum " + maxRequestsPerMinute + " uploads per minute.\"}");
-                return;
-            }
-            // Increment counter
-            rateLimitData.requestCount.incrementAndGet();
-            log.debug("Request allowed for IP: {}, count: {}/{}", clientIp, rateLimitData.requestCount.get(), maxRequestsPerMinute);
+        // Only the counter update is done under the lock; logging and the response happen outside it
+        int count = rateLimitData.tryIncrement(uploadCount(request), maxRequestsPerMinute, timeWindowMs);
+        if (count < 0) {
+            log.warn("Rate limit exceeded for IP: {}, uploads: {}/{}", clientIp, -count, maxRequestsPerMinute);
+            response.setStatus(429); // Too Many Requests
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\":\"Rate limit exceeded. Maximum " + maxRequestsPerMinute + " uploads per minute.\"}");
+            return;
         }
+        log.debug("Request allowed for IP: {}, count: {}/{}", clientIp, count, maxRequestsPerMinute);
         filterChain.doFilter(request, response);
     }
+    /**
+     * Single-request and batch uploads, and chunked upload sessions being opened.
+     */
+    private static boolean isUploadStart(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return "POST".equals(request.getMethod())
+            && (uri.endsWith("/api/media/upload") || uri.endsWith("/api/media/upload/batch")
+                || uri.endsWith("/api/media/uploads"));
+    }
+    /**
+     * A batch is charged one upload per file, so it cannot be used to get around the limit.
+     * If the multipart body cannot be read it counts once and the controller reports the error.
+     */
+    private static int uploadCount(HttpServletRequest request) {
+        if (!request.getRequestURI().endsWith("/api/media/upload/batch")) {
+            return 1;
+        }
+        try {
+            int files = 0;
+            for (Part part : request.getParts()) {
+                if ("files".equals(part.getName()) && part.getSubmittedFileName() != null) {
+                    files++;
+                }
+            }
+            return Math.max(files, 1);
+        } catch (IOException | ServletException | IllegalStateException e) {
+            return 1;
+        }
+    }
     /**
      * Get the client IP address from the request.
      * Checks X-Forwarded-For header for proxy scenarios.
@@ -85,7 +107,30 @@ public class RateLimitingFilter extends OncePerRequestFilter {
      * Data class to store rate limiting information per IP.
      */
     private static class RateLimitData {
+        // A lock rather than synchronized: a virtual thread blocking inside a monitor pins its carrier
+        private final ReentrantLock lock = new ReentrantLock();
         AtomicInteger requestCount = new AtomicInteger(0);
-        long windowStart = System.currentTimeMillis();
+        volatile long windowStart = System.currentTimeMillis();
+
+        /**
+         * Counts uploads in the current window, starting a new window if it has passed.
+         * Returns the new count, negated if it is over the limit and the request must be rejected.
+         */
+        int tryIncrement(int uploads, int maxRequests, long windowMs) {
+            lock.lock();
+            try {
+                long currentTime = System.currentTimeMillis();
+                // Reset counter if time window has passed
+                if (currentTime - windowStart > windowMs) {
+                    requestCount.set(0);
+                    windowStart = currentTime;
+                }
+                // Rejected requests are counted too, so the log shows how hard a client is pushing
+                int count = requestCount.addAndGet(uploads);
+                return count > maxRequests ? -count : count;
+            } finally {
+                lock.unlock();
+            }
+        }
     }
 }
@@ -34,7 +34,12 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 // Public endpoints - anyone can view media
-                .requestMatchers("/api/media/{id}", "/api/media/product/{productId}", "/api/media/{id}/info", "/api/media").permitAll()
+                .requestMatchers("/api/media/{id}", "/api/media/product/{productId}", "/api/media/{id}/info", "/api/media",
+                    "/api/media/by-products").permitAll()
+                // Internal endpoints - called by other services, blocked at the gateway
+                .requestMatchers("/api/media/internal/**").permitAll()
+                // Liveness for container orchestration; metrics stay behind authentication
+                .requestMatchers("/actuator/health").permitAll()
                 // Protected endpoints - require authentication
                 .anyRequest().authenticated()
             )
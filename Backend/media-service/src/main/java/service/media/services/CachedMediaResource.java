@@ -0,0 +1,51 @@
+package service.media.services;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A stored file served through {@link HotMediaCache}. The cache is only consulted when the
+ * body is actually written, so 304 and HEAD responses never touch it or the store.
+ */
+class CachedMediaResource extends AbstractResource {
+    private final HotMediaCache cache;
+    private final String hash;
+    private final Resource stored;
+    private final long size;
+
+    CachedMediaResource(HotMediaCache cache, String hash, Resource stored, long size) {
+        this.cache = cache;
+        this.hash = hash;
+        this.stored = stored;
+        this.size = size;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        InputStream cached = cache.open(hash, stored, size);
+        return cached != null ? cached : stored.getInputStream();
+    }
+
+    @Override
+    public long contentLength() {
+        return size;
+    }
+
+    @Override
+    public boolean exists() {
+        return stored.exists();
+    }
+
+    @Override
+    public String getFilename() {
+        return stored.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return "cached " + stored.getDescription();
+    }
+}
@@ -0,0 +1,293 @@
+package service.media.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import service.media.dtos.MediaDtos.*;
+import service.media.exception.MediaNotFoundException;
+import service.media.exception.StorageException;
+import service.media.exception.UploadConflictException;
+import service.media.services.ImageTypes.Dimensions;
+import service.media.services.MediaBlobService.StoredBlob;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Resumable uploads in three steps: open a session for a declared size, PUT the bytes in
+ * chunks at increasing offsets, then complete. Each chunk streams straight to a temporary file
+ * on the storage volume while the SHA-256 is updated incrementally, so nothing is buffered in
+ * memory and a failed chunk only has to be resent from the last acknowledged offset.
+ *
+ * <p>Sessions are kept in memory; a restart drops unfinished uploads and their temporary files
+ * are cleaned up by {@link #expireIdleSessions()}.
+ */
+@Service
+public class ChunkedUploadService {
+    private static final Logger log = LoggerFactory.getLogger(ChunkedUploadService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SESSION_NOT_FOUND_MESSAGE = "Upload session not found: ";
+
+    private final MediaService mediaService;
+    private final MediaBlobService blobService;
+    private final List<String> allowedTypes;
+    private final long maxSize;
+    private final long sessionTtlMs;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChunkedUploadService(MediaService mediaService,
+                                MediaBlobService blobService,
+                                @Value("${media.allowed.types:image/png,image/jpeg,image/gif}") String allowedTypesStr,
+                                @Value("${media.upload.max-size:20971520}") long maxSize,
+                                @Value("${media.upload.session-ttl-ms:3600000}") long sessionTtlMs) {
+        this.mediaService = mediaService;
+        this.blobService = blobService;
+        this.allowedTypes = List.of(allowedTypesStr.split(","));
+        this.maxSize = maxSize;
+        this.sessionTtlMs = sessionTtlMs;
+    }
+
+    public UploadSessionResponse init(UploadInitRequest request, String owner) {
+        if (request.size() <= 0) {
+            throw new IllegalArgumentException("Cannot upload empty file");
+        }
+        if (request.size() > maxSize) {
+            throw new IllegalArgumentException("File size exceeds maximum allowed size of " + maxSize + " bytes");
+        }
+        String contentType = request.contentType();
+        if (contentType == null || !allowedTypes.contains(contentType.toLowerCase())) {
+            throw new IllegalArgumentException("File type not allowed. Only PNG, JPG, and GIF images are accepted");
+        }
+
+        Path incoming;
+        try {
+            incoming = blobService.createIncomingFile();
+        } catch (IOException e) {
+            throw new StorageException("Failed to start upload", e);
+        }
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), owner, request, incoming);
+        sessions.put(session.id, session);
+        log.info("Upload session {} started: {} bytes, productId={}", session.id, request.size(), request.productId());
+        return session.toResponse();
+    }
+
+    public UploadSessionResponse status(String uploadId, String owner) {
+        return find(uploadId, owner).toResponse();
+    }
+
+    /**
+     * Appends one chunk. {@code offset} must equal the bytes already received; anything else is
+     * rejected with the current offset so the client knows where to resume.
+     */
+    public UploadSessionResponse appendChunk(String uploadId, long offset, InputStream body, String owner) {
+        UploadSession session = find(uploadId, owner);
+        if (!session.lock.tryLock()) {
+            throw new UploadConflictException("Another chunk is being written to this upload", session.offset);
+        }
+        try {
+            ensureOpen(session);
+            if (offset != session.offset) {
+                throw new UploadConflictException("Expected offset " + session.offset, session.offset);
+            }
+            write(session, body);
+            session.touch();
+            return session.toResponse();
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    public MediaUploadResponse complete(String uploadId, String owner) {
+        UploadSession session = find(uploadId, owner);
+        session.lock.lock();
+        try {
+            ensureOpen(session);
+            if (session.offset != session.size) {
+                throw new UploadConflictException(
+                    "Upload incomplete: " + session.offset + " of " + session.size + " bytes received", session.offset);
+            }
+            sessions.remove(session.id);
+            Dimensions dimensions;
+            try (InputStream in = Files.newInputStream(session.incoming)) {
+                dimensions = ImageTypes.dimensions(in);
+            }
+            StoredBlob blob = blobService.storeIncoming(session.incoming, session.hash(), session.size);
+            return mediaService.saveUploaded(blob, session.detectedType, dimensions, session.productId,
+                session.fileName);
+        } catch (IOException e) {
+            throw new StorageException("Failed to complete upload", e);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    public void abort(String uploadId, String owner) {
+        UploadSession session = find(uploadId, owner);
+        session.lock.lock();
+        try {
+            discard(session);
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${media.upload.cleanup-interval-ms:300000}")
+    public void expireIdleSessions() {
+        long cutoff = System.currentTimeMillis() - sessionTtlMs;
+        sessions.values().forEach(session -> {
+            // Skip sessions with a chunk in flight; they are not idle
+            if (session.lastTouched < cutoff && session.lock.tryLock()) {
+                try {
+                    discard(session);
+                    log.info("Upload session {} expired at {} of {} bytes", session.id, session.offset, session.size);
+                } finally {
+                    session.lock.unlock();
+                }
+            }
+        });
+    }
+
+    private UploadSession find(String uploadId, String owner) {
+        UploadSession session = sessions.get(uploadId);
+        // Someone else's session is reported as missing rather than forbidden
+        if (session == null || !session.owner.equals(owner)) {
+            throw new MediaNotFoundException(SESSION_NOT_FOUND_MESSAGE + uploadId);
+        }
+        return session;
+    }
+
+    // A request may have looked the session up just before it was completed, aborted or expired
+    private void ensureOpen(UploadSession session) {
+        if (sessions.get(session.id) != session) {
+            throw new MediaNotFoundException(SESSION_NOT_FOUND_MESSAGE + session.id);
+        }
+    }
+
+    private void discard(UploadSession session) {
+        sessions.remove(session.id);
+        try {
+            Files.deleteIfExists(session.incoming);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary file for upload {}", session.id, e);
+        }
+    }
+
+    // Callers hold the session lock
+    private void write(UploadSession session, InputStream body) {
+        long start = session.offset;
+        MessageDigest checkpoint = session.checkpoint();
+        try (FileChannel channel = FileChannel.open(session.incoming, StandardOpenOption.WRITE)) {
+            channel.position(start);
+            InputStream in = body;
+            if (start == 0) {
+                in = new BufferedInputStream(body);
+                session.detectedType = verifiedType(in);
+            }
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (session.offset + read > session.size) {
+                    throw new IllegalArgumentException("Chunk exceeds the declared size of " + session.size + " bytes");
+                }
+                session.digest.update(buffer, 0, read);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+                session.offset += read;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Roll back to the last complete chunk so the client can resend just this one
+            session.rollback(start, checkpoint);
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new StorageException("Failed to write chunk", e);
+        }
+    }
+
+    /**
+     * The first chunk must start with the magic bytes of an allowed image format.
+     */
+    private String verifiedType(InputStream in) throws IOException {
+        byte[] header = new byte[ImageTypes.HEADER_LENGTH];
+        in.mark(header.length);
+        int headerLength = in.readNBytes(header, 0, header.length);
+        in.reset();
+        String detected = ImageTypes.detect(header, headerLength);
+        if (detected == null || !allowedTypes.contains(detected)) {
+            throw new IllegalArgumentException("File type not allowed. Only PNG, JPG, and GIF images are accepted");
+        }
+        return detected;
+    }
+
+    private static final class UploadSession {
+        private final String id;
+        private final String owner;
+        private final String fileName;
+        private final String productId;
+        private final long size;
+        private final Path incoming;
+        private final ReentrantLock lock = new ReentrantLock();
+        private MessageDigest digest = MediaBlobService.sha256();
+        private volatile long offset;
+        private String detectedType;
+        private volatile long lastTouched = System.currentTimeMillis();
+
+        UploadSession(String id, String owner, UploadInitRequest request, Path incoming) {
+            this.id = id;
+            this.owner = owner;
+            this.fileName = request.fileName();
+            this.productId = request.productId();
+            this.size = request.size();
+            this.incoming = incoming;
+        }
+
+        void touch() {
+            lastTouched = System.currentTimeMillis();
+        }
+
+        MessageDigest checkpoint() {
+            try {
+                return (MessageDigest) digest.clone();
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException("SHA-256 digest cannot be checkpointed", e);
+            }
+        }
+
+        void rollback(long toOffset, MessageDigest checkpoint) {
+            offset = toOffset;
+            digest = checkpoint;
+            try (FileChannel channel = FileChannel.open(incoming, StandardOpenOption.WRITE)) {
+                channel.truncate(toOffset);
+            } catch (IOException e) {
+                log.warn("Failed to truncate upload {} to {} bytes", id, toOffset, e);
+            }
+        }
+
+        String hash() {
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        UploadSessionResponse toResponse() {
+            return new UploadSessionResponse(id, offset, size);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package service.media.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * LRU cache of hot media bytes held outside the Java heap. Memory is carved out of direct
+ * {@link ByteBuffer} slabs in fixed-size pages, so entries of any size share one budget
+ * without fragmenting it. Keys are content hashes, so a cached entry can never go stale.
+ *
+ * <p>Only media requested at least {@code media.cache.min-hits} times recently are admitted,
+ * and a newcomer never evicts an entry that is requested more often than itself. Access counts
+ * come from a small count-min sketch that is halved periodically so old popularity fades.
+ */
+@Service
+public class HotMediaCache {
+    private static final Logger log = LoggerFactory.getLogger(HotMediaCache.class);
+    private static final int PAGE_SIZE = 64 * 1024;
+    private static final int PAGES_PER_SLAB = 128; // 8 MB slabs
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final int minHits;
+    private final int maxPages;
+    private final FrequencySketch sketch;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ArrayDeque<ByteBuffer> freePages = new ArrayDeque<>();
+    private int allocatedPages;
+
+    public HotMediaCache(@Value("${media.cache.max-bytes:67108864}") long maxBytes,
+                         @Value("${media.cache.max-entry-bytes:2097152}") long maxEntryBytes,
+                         @Value("${media.cache.min-hits:2}") int minHits) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+        this.minHits = minHits;
+        this.maxPages = (int) Math.min(Integer.MAX_VALUE, maxBytes / PAGE_SIZE);
+        this.sketch = new FrequencySketch((int) Math.min(1 << 20, Math.max(1024, maxPages * 4L)));
+        log.info("Hot media cache budget: {} bytes", maxBytes);
+    }
+
+    /**
+     * Opens the cached bytes for {@code hash}, loading them from {@code source} first when the
+     * entry is popular enough to be admitted. Returns null when the caller should read the file
+     * itself. The returned stream keeps the entry's memory from being reused until it is closed.
+     */
+    public InputStream open(String hash, Resource source, long size) throws IOException {
+        if (maxPages == 0) {
+            return null;
+        }
+        List<ByteBuffer> pages;
+        int frequency;
+        lock.lock();
+        try {
+            frequency = sketch.increment(hash);
+            Entry cached = entries.get(hash);
+            if (cached != null) {
+                return cached.openStream();
+            }
+            if (size <= 0 || size > maxEntryBytes || frequency < minHits) {
+                return null;
+            }
+            pages = reservePages(pagesFor(size), frequency);
+            if (pages == null) {
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        // Fill outside the lock; the pages are not visible to anyone else until published
+        Entry loaded = new Entry(pages, size);
+        try {
+            load(source, pages, size);
+        } catch (IOException | RuntimeException e) {
+            releasePages(pages);
+            throw e;
+        }
+
+        lock.lock();
+        try {
+            Entry existing = entries.get(hash);
+            if (existing != null) {
+                // Loaded concurrently by another request
+                releasePages(pages);
+                return existing.openStream();
+            }
+            entries.put(hash, loaded);
+            return loaded.openStream();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the entry for {@code hash}. Streams already open keep reading their bytes.
+     */
+    public void invalidate(String hash) {
+        lock.lock();
+        try {
+            Entry removed = entries.remove(hash);
+            if (removed != null) {
+                removed.evict();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int pagesFor(long size) {
+        return (int) ((size + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    // Callers hold the lock
+    private List<ByteBuffer> reservePages(int needed, int frequency) {
+        int available = freePages.size() + (maxPages - allocatedPages);
+        if (available < needed) {
+            // Walk from least recently used; give up rather than evict something more popular
+            List<String> victims = new ArrayList<>();
+            int reclaimable = 0;
+            for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+                 it.hasNext() && available + reclaimable < needed; ) {
+                Map.Entry<String, Entry> candidate = it.next();
+                if (candidate.getValue().pins.get() > 0) {
+                    continue;
+                }
+                if (sketch.frequency(candidate.getKey()) >= frequency) {
+                    return null;
+                }
+                victims.add(candidate.getKey());
+                reclaimable += candidate.getValue().pages.size();
+            }
+            if (available + reclaimable < needed) {
+                return null;
+            }
+            victims.forEach(key -> entries.remove(key).evict());
+        }
+
+        List<ByteBuffer> pages = new ArrayList<>(needed);
+        while (pages.size() < needed) {
+            if (freePages.isEmpty()) {
+                allocateSlab();
+            }
+            pages.add(freePages.pop());
+        }
+        return pages;
+    }
+
+    private void allocateSlab() {
+        int count = Math.min(PAGES_PER_SLAB, maxPages - allocatedPages);
+        ByteBuffer slab = ByteBuffer.allocateDirect(count * PAGE_SIZE);
+        for (int i = 0; i < count; i++) {
+            freePages.push(slab.slice(i * PAGE_SIZE, PAGE_SIZE));
+        }
+        allocatedPages += count;
+    }
+
+    private void releasePages(List<ByteBuffer> pages) {
+        lock.lock();
+        try {
+            pages.forEach(page -> freePages.push(page.clear()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void load(Resource source, List<ByteBuffer> pages, long size) throws IOException {
+        // A file channel for the filesystem store; reads go straight into the off-heap pages
+        try (ReadableByteChannel channel = source.readableChannel()) {
+            long remaining = size;
+            for (ByteBuffer page : pages) {
+                ByteBuffer target = page.duplicate().clear().limit((int) Math.min(PAGE_SIZE, remaining));
+                while (target.hasRemaining()) {
+                    if (channel.read(target) < 0) {
+                        throw new IOException("Stored media shorter than recorded size: " + source.getDescription());
+                    }
+                }
+                remaining -= target.limit();
+            }
+        }
+    }
+
+    /**
+     * Cached bytes for one hash. Pages return to the free list once the entry has been evicted
+     * and no stream is still reading it.
+     */
+    private final class Entry {
+        private final List<ByteBuffer> pages;
+        private final long size;
+        private final AtomicInteger pins = new AtomicInteger();
+        private volatile boolean evicted;
+
+        Entry(List<ByteBuffer> pages, long size) {
+            this.pages = pages;
+            this.size = size;
+        }
+
+        // Callers hold the lock
+        InputStream openStream() {
+            pins.incrementAndGet();
+            return new PageInputStream(this);
+        }
+
+        // Callers hold the lock
+        void evict() {
+            evicted = true;
+            if (pins.get() == 0) {
+                pages.forEach(page -> freePages.push(page.clear()));
+            }
+        }
+
+        void unpin() {
+            lock.lock();
+            try {
+                if (pins.decrementAndGet() == 0 && evicted) {
+                    pages.forEach(page -> freePages.push(page.clear()));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class PageInputStream extends InputStream {
+        private final Entry entry;
+        private long position;
+        private boolean closed;
+
+        PageInputStream(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public int read() {
+            if (position >= entry.size) {
+                return -1;
+            }
+            int value = entry.pages.get((int) (position / PAGE_SIZE)).get((int) (position % PAGE_SIZE)) & 0xFF;
+            position++;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= entry.size) {
+                return -1;
+            }
+            int offsetInPage = (int) (position % PAGE_SIZE);
+            int count = (int) Math.min(Math.min(len, PAGE_SIZE - offsetInPage), entry.size - position);
+            entry.pages.get((int) (position / PAGE_SIZE)).get(offsetInPage, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, entry.size - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, entry.size - position);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                entry.unpin();
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of recent access counts: four hashed counters per key, saturating at 15,
+     * all halved after every {@code 10 * width} increments.
+     */
+    static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final int[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int width) {
+            int size = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+            this.counters = new int[DEPTH][size];
+            this.mask = size - 1;
+            this.sampleSize = 10 * size;
+        }
+
+        int increment(String key) {
+            int hash = key.hashCode();
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < DEPTH; i++) {
+                int[] row = counters[i];
+                int index = index(hash, i);
+                if (row[index] < MAX_COUNT) {
+                    row[index]++;
+                }
+                min = Math.min(min, row[index]);
+            }
+            if (++additions >= sampleSize) {
+                halve();
+            }
+            return min;
+        }
+
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int min = Integer.MAX_VALUE;
+            for (int i = 0; i < DEPTH; i++) {
+                min = Math.min(min, counters[i][index(hash, i)]);
+            }
+            return min;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void halve() {
+            for (int[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>>= 1;
+                }
+            }
+            additions = 0;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package service.media.services;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Magic-byte detection for the image formats media-service accepts.
+ */
+final class ImageTypes {
+    static final String PNG = "image/png";
+    static final String JPEG = "image/jpeg";
+    static final String GIF = "image/gif";
+    static final String OCTET_STREAM = "application/octet-stream";
+
+    // Number of leading bytes needed by detect()
+    static final int HEADER_LENGTH = 8;
+    // Leading bytes enough for dimensions(): PNG and GIF sizes come first, JPEG frame headers
+    // follow the metadata segments, which rarely add up to more than this
+    static final int DIMENSIONS_HEADER_LENGTH = 64 * 1024;
+
+    private ImageTypes() {
+    }
+
+    /**
+     * Returns the detected content type, or null if the bytes match none of the known formats.
+     */
+    static String detect(byte[] header, int length) {
+        if (length >= 4 && header[0] == (byte) 0x89 && header[1] == (byte) 0x50
+                && header[2] == (byte) 0x4E && header[3] == (byte) 0x47) {
+            return PNG;
+        }
+        if (length >= 3 && header[0] == (byte) 0xFF && header[1] == (byte) 0xD8 && header[2] == (byte) 0xFF) {
+            return JPEG;
+        }
+        if (length >= 4 && header[0] == (byte) 0x47 && header[1] == (byte) 0x49
+                && header[2] == (byte) 0x46 && header[3] == (byte) 0x38) {
+            return GIF;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the pixel dimensions from the image header without decoding the image, or returns
+     * null if no reader understands the bytes or they end before the dimensions do.
+     */
+    static Dimensions dimensions(InputStream in) throws IOException {
+        try (ImageInputStream image = ImageIO.createImageInputStream(in)) {
+            if (image == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(image);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                return new Dimensions(reader.getWidth(0), reader.getHeight(0));
+            } catch (IOException | RuntimeException e) {
+                return null; // Recognised format, but a header too damaged to read
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    record Dimensions(int width, int height) {}
+}
@@ -0,0 +1,85 @@
+package service.media.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import service.media.models.JobLease;
+import service.media.mongo_repo.JobLeaseRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Leases in MongoDB that let a scheduled job run on one instance at a time, although every
+ * instance schedules it. The runner renews its lease between batches; one that stops renewing,
+ * because it died, loses the lease once it expires and the next scheduled run anywhere takes over.
+ */
+@Service
+public class JobLeases {
+    private static final Logger log = LoggerFactory.getLogger(JobLeases.class);
+
+    private final JobLeaseRepository leaseRepository;
+    private final Duration ttl;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Autowired
+    public JobLeases(JobLeaseRepository leaseRepository,
+                     @Value("${media.jobs.lease-ms:300000}") long leaseMs) {
+        this.leaseRepository = leaseRepository;
+        this.ttl = Duration.ofMillis(leaseMs);
+    }
+
+    /**
+     * The lease on {@code job}, or null while another instance holds it.
+     */
+    public Lease acquire(String job) {
+        Instant now = Instant.now();
+        if (leaseRepository.takeIfFree(job, instanceId, now, now.plus(ttl)) > 0) {
+            return new Lease(job);
+        }
+        try {
+            leaseRepository.insert(new JobLease(job, instanceId, now.plus(ttl)));
+            return new Lease(job);
+        } catch (DuplicateKeyException e) {
+            return null; // Held by another instance
+        }
+    }
+
+    /**
+     * A held lease. Closing it releases the job for the next scheduled run on any instance.
+     */
+    public class Lease implements AutoCloseable {
+        private final String job;
+
+        Lease(String job) {
+            this.job = job;
+        }
+
+        /**
+         * Extends the lease. Returns false if it was lost, after expiring, to another instance,
+         * in which case the job must stop.
+         */
+        public boolean renew() {
+            boolean held = leaseRepository.findAndSetExpiresAtByIdAndHolder(job, instanceId, Instant.now().plus(ttl)) > 0;
+            if (!held) {
+                log.warn("Lost the lease on {} to another instance", job);
+            }
+            return held;
+        }
+
+        @Override
+        public void close() {
+            try {
+                leaseRepository.deleteByIdAndHolder(job, instanceId);
+            } catch (DataAccessException e) {
+                // It expires on its own
+                log.warn("Failed to release the lease on {}", job, e);
+            }
+        }
+    }
+}
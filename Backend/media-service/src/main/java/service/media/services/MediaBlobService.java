@@ -0,0 +1,269 @@
+package service.media.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import service.media.exception.StorageException;
+import service.media.models.Media;
+import service.media.models.MediaBlob;
+import service.media.mongo_repo.MediaBlobRepository;
+import service.media.store.MediaStore;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Content-addressed storage on top of the configured {@link MediaStore}. Uploads are hashed while
+ * they stream to a local temporary file and then stored once per distinct SHA-256, keyed by the
+ * digest in a {@link StorageLayout} shard; every {@link Media} pointing at the same bytes holds a
+ * reference on the shared {@link MediaBlob}.
+ *
+ * <p>Several instances may share one store, so taking a reference and deleting a file are ordered
+ * through the blob document rather than a local lock: a new blob is recorded before its file is
+ * stored, and a purge claims the blob before deleting the file and removes the document only
+ * afterwards. An upload of bytes being purged waits for the document to go and stores them anew.
+ */
+@Service
+public class MediaBlobService {
+    private static final Logger log = LoggerFactory.getLogger(MediaBlobService.class);
+    private static final String INCOMING_DIR = ".incoming";
+    private static final int LOCK_STRIPES = 64;
+    // A purge claim older than this is taken to be from an instance that died mid-purge
+    private static final Duration PURGE_TIMEOUT = Duration.ofMinutes(10);
+    // How long an upload waits for a purge of the same bytes to finish
+    private static final int ACQUIRE_ATTEMPTS = 50;
+    private static final long PURGE_WAIT_MS = 100;
+
+    private final MediaBlobRepository blobRepository;
+    private final MediaStore store;
+    private final Path incomingLocation;
+    // Serialises work on the same hash within this instance, such as the scrubber and the storage
+    // migration moving a file while it is being re-added
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    @Autowired
+    public MediaBlobService(MediaBlobRepository blobRepository,
+                            MediaStore store,
+                            @Value("${media.storage.path:./uploads}") String storagePath) {
+        this.blobRepository = blobRepository;
+        this.store = store;
+        // Local staging for bytes still arriving, whichever store they end up in
+        this.incomingLocation = Paths.get(storagePath).toAbsolutePath().normalize().resolve(INCOMING_DIR);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        try {
+            Files.createDirectories(this.incomingLocation);
+        } catch (IOException e) {
+            throw new StorageException("Could not create storage directory", e);
+        }
+    }
+
+    /**
+     * Streams {@code in} to disk once, hashing as it goes, and takes a reference on the blob
+     * for those bytes. Identical content already on disk is reused and the new copy dropped.
+     */
+    public StoredBlob store(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        Path incoming = createIncomingFile();
+        try {
+            long size = Files.copy(new DigestInputStream(in, digest), incoming,
+                StandardCopyOption.REPLACE_EXISTING);
+            return storeIncoming(incoming, HexFormat.of().formatHex(digest.digest()), size);
+        } finally {
+            Files.deleteIfExists(incoming);
+        }
+    }
+
+    /**
+     * A fresh local temporary file, for content that is still arriving.
+     */
+    public Path createIncomingFile() throws IOException {
+        return Files.createTempFile(incomingLocation, "upload-", ".tmp");
+    }
+
+    /**
+     * Takes a reference on the blob for a fully written incoming file whose hash the caller
+     * computed while writing it. The incoming file is moved into place or discarded.
+     */
+    public StoredBlob storeIncoming(Path incoming, String hash, long size) throws IOException {
+        try {
+            return new StoredBlob(hash, acquire(hash, incoming, size), size);
+        } finally {
+            Files.deleteIfExists(incoming);
+        }
+    }
+
+    private String acquire(String hash, Path incoming, long size) throws IOException {
+        for (int attempt = 1; attempt <= ACQUIRE_ATTEMPTS; attempt++) {
+            String filePath;
+            try {
+                filePath = withLock(hash, () -> tryAcquire(hash, incoming, size));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (filePath != null) {
+                return filePath;
+            }
+            try {
+                Thread.sleep(PURGE_WAIT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for blob " + hash);
+            }
+        }
+        throw new StorageException("Blob " + hash + " is still being removed; try the upload again");
+    }
+
+    // The blob's store key once a reference is held, or null while a purge of it is in progress
+    private String tryAcquire(String hash, Path incoming, long size) {
+        String filePath = blobKey(hash);
+        try {
+            if (blobRepository.incrementRefCountUnlessPurging(hash, Instant.now().minus(PURGE_TIMEOUT)) > 0) {
+                // Already stored; only restore the file if it went missing
+                if (!store.exists(filePath)) {
+                    store.putFile(filePath, incoming);
+                }
+                return filePath;
+            }
+            try {
+                // Recorded before the file is stored, so a purge never sees it unreferenced
+                blobRepository.insert(new MediaBlob(hash, filePath, size, 1, Instant.now()));
+            } catch (DuplicateKeyException e) {
+                // Stored by another instance in the meantime, and taken on the next attempt, or being purged
+                return null;
+            }
+            try {
+                store.putFile(filePath, incoming);
+            } catch (IOException | RuntimeException e) {
+                release(hash);
+                throw e;
+            }
+            return filePath;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Drops one reference on the blob for {@code hash}. This only touches metadata: a blob left
+     * without references is tombstoned and its file removed later by {@link MediaGarbageCollector}.
+     */
+    public void release(String hash) {
+        // Both updates are conditional, so a reference taken in between simply keeps the blob alive
+        blobRepository.findAndDecrementRefCountById(hash);
+        blobRepository.findAndSetReleasedAtByIdAndRefCountLessThanEqual(hash, 0, Instant.now());
+    }
+
+    /**
+     * Deletes a blob tombstoned before {@code releasedBefore} together with its file, unless it
+     * was referenced again or another purge holds it. Returns the bytes reclaimed, or -1 if the
+     * blob was left alone.
+     */
+    public long purge(String hash, Instant releasedBefore) {
+        String token = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        if (blobRepository.claimPurge(hash, releasedBefore, now.minus(PURGE_TIMEOUT), token, now) == 0) {
+            return -1;
+        }
+        long freed;
+        try {
+            // Also the flat copy of a blob not yet moved by the storage migration
+            freed = withLock(hash, () -> deleteFiles(hash));
+        } catch (StorageException e) {
+            // Back to a plain tombstone, so uploads of these bytes do not wait for the claim to expire
+            blobRepository.findAndClearPurgeByIdAndPurgeToken(hash, token);
+            throw e;
+        }
+        blobRepository.deleteByIdAndPurgeToken(hash, token);
+        return freed;
+    }
+
+    private long deleteFiles(String hash) {
+        try {
+            return store.delete(blobKey(hash)) + store.delete(hash);
+        } catch (IOException e) {
+            throw new StorageException("Failed to delete blob " + hash, e);
+        }
+    }
+
+    /**
+     * Local directory holding uploads still in progress.
+     */
+    public Path incomingLocation() {
+        return incomingLocation;
+    }
+
+    /**
+     * Store key of the blob for {@code hash}.
+     */
+    public String blobKey(String hash) {
+        return StorageLayout.shardedPath(hash);
+    }
+
+    /**
+     * Runs {@code action} while holding the lock that serialises acquire and release of {@code hash}.
+     */
+    public void withLock(String hash, Runnable action) {
+        withLock(hash, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T withLock(String hash, Supplier<T> action) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether the media's file is a shared blob rather than a per-upload file from before
+     * content addressing.
+     */
+    public boolean isBlobBacked(Media media) {
+        String hash = media.getContentHash();
+        return hash != null
+            && (hash.equals(media.getFilePath()) || StorageLayout.shardedPath(hash).equals(media.getFilePath()));
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A referenced blob: its hex SHA-256, store key, and size in bytes.
+     */
+    public record StoredBlob(String hash, String filePath, long size) {}
+}
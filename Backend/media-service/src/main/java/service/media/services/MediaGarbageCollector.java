@@ -0,0 +1,264 @@
+package service.media.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import service.media.exception.StorageException;
+import service.media.models.Media;
+import service.media.models.MediaBlob;
+import service.media.mongo_repo.MediaBlobRepository;
+import service.media.mongo_repo.MediaRepository;
+import service.media.store.MediaStore;
+import service.media.store.MediaStore.StoredObject;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Reclaims storage in the background so deletes on the request path stay metadata-only.
+ * Each run first purges blobs tombstoned for longer than the grace period, then lists the
+ * {@link MediaStore} in batches and removes objects no document refers to: leftovers of failed
+ * uploads and per-upload files of deleted legacy media. Abandoned local temporary files go too.
+ *
+ * <p>Only files older than the grace period are considered, which keeps uploads and migrations
+ * in flight safe, and deletions are throttled so the sweep never competes with serving. A run
+ * holds a {@link JobLeases} lease, so with several instances only one collects at a time.
+ */
+@Service
+public class MediaGarbageCollector {
+    private static final Logger log = LoggerFactory.getLogger(MediaGarbageCollector.class);
+    private static final String JOB = "media-gc";
+
+    private final MediaRepository mediaRepository;
+    private final MediaBlobRepository blobRepository;
+    private final MediaBlobService blobService;
+    private final MediaStore store;
+    private final JobLeases leases;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long graceMs;
+    private final long incomingGraceMs;
+    private final double maxDeletesPerSecond;
+    private final Counter reclaimedBytes;
+    private final Counter deletedTombstones;
+    private final Counter deletedOrphans;
+
+    @Autowired
+    public MediaGarbageCollector(MediaRepository mediaRepository,
+                                 MediaBlobRepository blobRepository,
+                                 MediaBlobService blobService,
+                                 MediaStore store,
+                                 JobLeases leases,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${media.gc.enabled:true}") boolean enabled,
+                                 @Value("${media.gc.batch-size:500}") int batchSize,
+                                 @Value("${media.gc.grace-ms:3600000}") long graceMs,
+                                 @Value("${media.gc.incoming-grace-ms:86400000}") long incomingGraceMs,
+                                 @Value("${media.gc.max-deletes-per-second:50}") double maxDeletesPerSecond) {
+        this.mediaRepository = mediaRepository;
+        this.blobRepository = blobRepository;
+        this.blobService = blobService;
+        this.store = store;
+        this.leases = leases;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.graceMs = graceMs;
+        this.incomingGraceMs = incomingGraceMs;
+        this.maxDeletesPerSecond = maxDeletesPerSecond;
+        this.reclaimedBytes = Counter.builder("media.gc.reclaimed")
+            .baseUnit("bytes")
+            .description("Bytes of storage freed by the media garbage collector")
+            .register(meterRegistry);
+        this.deletedTombstones = meterRegistry.counter("media.gc.deleted.files", "reason", "tombstone");
+        this.deletedOrphans = meterRegistry.counter("media.gc.deleted.files", "reason", "orphan");
+    }
+
+    @Scheduled(initialDelayString = "${media.gc.initial-delay-ms:60000}",
+               fixedDelayString = "${media.gc.interval-ms:900000}")
+    public void collect() {
+        if (!enabled) {
+            return;
+        }
+        Throttle throttle = new Throttle(maxDeletesPerSecond);
+        try (JobLeases.Lease lease = leases.acquire(JOB)) {
+            if (lease == null) {
+                log.debug("Media GC is running on another instance");
+                return;
+            }
+            long tombstoned = purgeTombstones(throttle, lease);
+            long orphaned = sweepOrphans(throttle, lease);
+            if (tombstoned + orphaned > 0) {
+                log.info("Media GC reclaimed {} bytes ({} from tombstoned blobs, {} from orphaned files)",
+                    tombstoned + orphaned, tombstoned, orphaned);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Media GC interrupted");
+        }
+    }
+
+    long purgeTombstones(Throttle throttle, JobLeases.Lease lease) throws InterruptedException {
+        Instant cutoff = Instant.now().minusMillis(graceMs);
+        long reclaimed = 0;
+        List<MediaBlob> batch;
+        do {
+            batch = blobRepository.findByRefCountLessThanEqualAndReleasedAtBefore(0, cutoff, PageRequest.of(0, batchSize));
+            for (MediaBlob blob : batch) {
+                throttle.acquire();
+                try {
+                    // Checked against the cutoff again, since the blob may have been revived and released since
+                    long freed = blobService.purge(blob.getId(), cutoff);
+                    if (freed >= 0) {
+                        reclaimed += freed;
+                        reclaimedBytes.increment(freed);
+                        deletedTombstones.increment();
+                    }
+                } catch (StorageException e) {
+                    // Its document is gone already; the directory sweep removes the file later
+                    log.error("Failed to purge blob {}", blob.getId(), e);
+                }
+            }
+            // Purged or revived blobs drop out of the query, so always read from the start
+        } while (batch.size() == batchSize && lease.renew());
+        return reclaimed;
+    }
+
+    long sweepOrphans(Throttle throttle, JobLeases.Lease lease) throws InterruptedException {
+        long now = System.currentTimeMillis();
+        long reclaimed = sweepIncoming(now, throttle);
+
+        try (Stream<StoredObject> objects = store.list()) {
+            Iterator<StoredObject> it = objects.iterator();
+            List<StoredObject> batch = new ArrayList<>(batchSize);
+            while (it.hasNext()) {
+                StoredObject object = it.next();
+                if (now - object.lastModified().toEpochMilli() <= graceMs) {
+                    continue;
+                }
+                batch.add(object);
+                if (batch.size() == batchSize) {
+                    reclaimed += sweepBatch(batch, throttle);
+                    batch.clear();
+                    if (!lease.renew()) {
+                        return reclaimed;
+                    }
+                }
+            }
+            reclaimed += sweepBatch(batch, throttle);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Media GC failed to list the media store", e);
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Temporary files of uploads that were never completed. These live on local disk
+     * whichever store is configured.
+     */
+    private long sweepIncoming(long now, Throttle throttle) throws InterruptedException {
+        Path incoming = blobService.incomingLocation();
+        long reclaimed = 0;
+        try (Stream<Path> files = Files.list(incoming)) {
+            Iterator<Path> it = files.iterator();
+            while (it.hasNext()) {
+                Path path = it.next();
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                } catch (IOException e) {
+                    continue; // Deleted while listing
+                }
+                if (attributes.isRegularFile() && now - attributes.lastModifiedTime().toMillis() > incomingGraceMs) {
+                    throttle.acquire();
+                    reclaimed += deleteIncoming(path, attributes.size());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Media GC failed to list {}", incoming, e);
+        }
+        return reclaimed;
+    }
+
+    private long sweepBatch(List<StoredObject> batch, Throttle throttle) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        // A file is still in use if a document has its key, or, for a move by the storage
+        // migration that is not recorded yet, its flat name or blob id
+        Set<String> keys = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (StoredObject object : batch) {
+            keys.add(object.key());
+            names.add(nameOf(object.key()));
+        }
+        Set<String> lookup = new HashSet<>(keys);
+        lookup.addAll(names);
+
+        Set<String> referenced = new HashSet<>();
+        blobRepository.findByFilePathInOrIdIn(lookup, names).forEach(blob -> {
+            referenced.add(blob.getFilePath());
+            referenced.add(blob.getId());
+        });
+        mediaRepository.findByFilePathIn(lookup).stream()
+            .map(Media::getFilePath)
+            .forEach(referenced::add);
+
+        long reclaimed = 0;
+        for (StoredObject object : batch) {
+            if (!referenced.contains(object.key()) && !referenced.contains(nameOf(object.key()))) {
+                throttle.acquire();
+                reclaimed += delete(object);
+            }
+        }
+        return reclaimed;
+    }
+
+    private long delete(StoredObject object) {
+        try {
+            long freed = store.delete(object.key());
+            if (freed > 0) {
+                reclaimedBytes.increment(freed);
+                deletedOrphans.increment();
+                log.debug("Deleted orphaned media {}", object.key());
+            }
+            return freed;
+        } catch (IOException | StorageException e) {
+            log.warn("Failed to delete orphaned media {}", object.key(), e);
+            return 0;
+        }
+    }
+
+    private long deleteIncoming(Path path, long size) {
+        try {
+            if (Files.deleteIfExists(path)) {
+                reclaimedBytes.increment(size);
+                deletedOrphans.increment();
+                log.debug("Deleted abandoned upload file {}", path);
+                return size;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete abandoned upload file {}", path, e);
+        }
+        return 0;
+    }
+
+    private static String nameOf(String key) {
+        return key.substring(key.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,219 @@
+package service.media.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import service.media.exception.StorageException;
+import service.media.models.MediaBlob;
+import service.media.mongo_repo.MediaBlobRepository;
+import service.media.store.MediaStore;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Re-reads every referenced blob in the background and checks its bytes against the SHA-256 it
+ * is stored under, so disk errors and partial writes surface before a customer finds them.
+ * A file that no longer matches is moved to {@code .quarantine/} and its blob marked corrupt;
+ * the next upload of the same image stores a good copy again.
+ *
+ * <p>Reads are throttled to {@code media.scrub.max-bytes-per-second} so a pass never competes
+ * with serving. Progress and findings are published as {@code media.scrub.*} metrics. A pass
+ * holds a {@link JobLeases} lease, so with several instances only one scrubs at a time.
+ */
+@Service
+public class MediaIntegrityScrubber {
+    private static final Logger log = LoggerFactory.getLogger(MediaIntegrityScrubber.class);
+    private static final String QUARANTINE_PREFIX = ".quarantine/";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String JOB = "media-scrub";
+
+    private final MediaBlobRepository blobRepository;
+    private final MediaBlobService blobService;
+    private final MediaStore store;
+    private final HotMediaCache hotCache;
+    private final JobLeases leases;
+    private final boolean enabled;
+    private final int batchSize;
+    private final double maxBytesPerSecond;
+    private final Counter scannedBytes;
+    private final Counter verifiedFiles;
+    private final Counter mismatched;
+    private final Counter missing;
+    private final Counter readErrors;
+    private final AtomicLong passScanned = new AtomicLong();
+    private final AtomicLong passTotal = new AtomicLong();
+    private final AtomicLong lastCompleted = new AtomicLong();
+
+    @Autowired
+    public MediaIntegrityScrubber(MediaBlobRepository blobRepository,
+                                  MediaBlobService blobService,
+                                  MediaStore store,
+                                  HotMediaCache hotCache,
+                                  JobLeases leases,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${media.scrub.enabled:true}") boolean enabled,
+                                  @Value("${media.scrub.batch-size:200}") int batchSize,
+                                  @Value("${media.scrub.max-bytes-per-second:4194304}") double maxBytesPerSecond) {
+        this.blobRepository = blobRepository;
+        this.blobService = blobService;
+        this.store = store;
+        this.hotCache = hotCache;
+        this.leases = leases;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.scannedBytes = Counter.builder("media.scrub.scanned")
+            .baseUnit("bytes")
+            .description("Bytes of stored media read back and hashed by the integrity scrubber")
+            .register(meterRegistry);
+        this.verifiedFiles = meterRegistry.counter("media.scrub.verified");
+        this.mismatched = meterRegistry.counter("media.scrub.corrupt", "reason", "mismatch");
+        this.missing = meterRegistry.counter("media.scrub.corrupt", "reason", "missing");
+        this.readErrors = meterRegistry.counter("media.scrub.errors");
+        Gauge.builder("media.scrub.progress", this, MediaIntegrityScrubber::progress)
+            .description("Fraction of the current scrub pass completed")
+            .register(meterRegistry);
+        Gauge.builder("media.scrub.last.completed", lastCompleted, AtomicLong::get)
+            .baseUnit("seconds")
+            .description("Epoch second the last full scrub pass finished")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${media.scrub.initial-delay-ms:600000}",
+               fixedDelayString = "${media.scrub.interval-ms:86400000}")
+    public void scrub() {
+        if (!enabled) {
+            return;
+        }
+        try (JobLeases.Lease lease = leases.acquire(JOB)) {
+            if (lease == null) {
+                log.debug("Media scrub is running on another instance");
+                return;
+            }
+            scrub(lease);
+        }
+    }
+
+    private void scrub(JobLeases.Lease lease) {
+        Throttle throttle = new Throttle(maxBytesPerSecond);
+        passScanned.set(0);
+        passTotal.set(blobRepository.countByRefCountGreaterThan(0));
+        long corrupt = 0;
+        String lastId = "";
+        try {
+            List<MediaBlob> batch;
+            // Keyset pagination on the hash, so blobs added or purged mid-pass do not shift pages
+            do {
+                batch = blobRepository.findByIdGreaterThanAndRefCountGreaterThan(lastId, 0,
+                    PageRequest.of(0, batchSize, Sort.by("id")));
+                for (MediaBlob blob : batch) {
+                    if (!verify(blob, throttle)) {
+                        corrupt++;
+                    }
+                    passScanned.incrementAndGet();
+                    lastId = blob.getId();
+                }
+                if (batch.size() == batchSize && !lease.renew()) {
+                    return;
+                }
+            } while (batch.size() == batchSize);
+            lastCompleted.set(Instant.now().getEpochSecond());
+            log.info("Media scrub checked {} blobs, {} corrupt", passScanned.get(), corrupt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.info("Media scrub interrupted after {} blobs", passScanned.get());
+        }
+    }
+
+    /**
+     * Hashes the blob's file and quarantines it on a mismatch. Returns false if the blob turned
+     * out to be corrupt or missing.
+     */
+    boolean verify(MediaBlob blob, Throttle throttle) throws InterruptedException {
+        if (blob.getCorruptAt() != null) {
+            return true; // Already quarantined, waiting for the bytes to be uploaded again
+        }
+        MessageDigest digest = MediaBlobService.sha256();
+        long size = 0;
+        try (InputStream in = store.get(blob.getFilePath()).getInputStream()) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+                size += read;
+                scannedBytes.increment(read);
+                throttle.acquire(read);
+            }
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            return !markMissing(blob.getId(), blob.getFilePath());
+        } catch (IOException | StorageException e) {
+            // Possibly transient; the next pass tries again
+            readErrors.increment();
+            log.warn("Media scrub could not read blob {}", blob.getId(), e);
+            return true;
+        }
+        verifiedFiles.increment();
+        if (size == blob.getSize() && HexFormat.of().formatHex(digest.digest()).equals(blob.getId())) {
+            return true;
+        }
+        return !quarantine(blob.getId(), blob.getFilePath(), size, blob.getSize());
+    }
+
+    private boolean markMissing(String hash, String key) {
+        return blobService.withLock(hash, () -> {
+            // Purged since the batch was read, or restored by an upload in the meantime
+            if (!stillReferenced(hash) || store.exists(key)) {
+                return false;
+            }
+            blobRepository.findAndSetCorruptAtById(hash, Instant.now());
+            missing.increment();
+            log.error("Media scrub found blob {} missing from the store", hash);
+            return true;
+        });
+    }
+
+    private boolean quarantine(String hash, String key, long actualSize, long expectedSize) {
+        return blobService.withLock(hash, () -> {
+            if (!stillReferenced(hash)) {
+                return false;
+            }
+            String target = QUARANTINE_PREFIX + hash + "-" + System.currentTimeMillis();
+            try {
+                store.move(key, target);
+            } catch (IOException e) {
+                throw new StorageException("Failed to quarantine blob " + hash, e);
+            }
+            blobRepository.findAndSetCorruptAtById(hash, Instant.now());
+            hotCache.invalidate(hash);
+            mismatched.increment();
+            log.error("Media scrub quarantined blob {} as {}: content does not match its hash ({} of {} bytes)",
+                hash, target, actualSize, expectedSize);
+            return true;
+        });
+    }
+
+    private boolean stillReferenced(String hash) {
+        return blobRepository.findById(hash).map(blob -> blob.getRefCount() > 0).orElse(false);
+    }
+
+    private double progress() {
+        long total = passTotal.get();
+        return total > 0 ? Math.min(1.0, (double) passScanned.get() / total) : 1.0;
+    }
+}
@@ -3,100 +3,258 @@ package service.media.services;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import service.media.dtos.MediaDtos.*;
 import service.media.exception.MediaNotFoundException;
 import service.media.exception.StorageException;
 import service.media.models.Media;
+import service.media.models.MediaVariant;
 import service.media.mongo_repo.MediaRepository;
+import service.media.services.ImageTypes.Dimensions;
+import service.media.services.MediaBlobService.StoredBlob;
+import service.media.store.MediaStore;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 @Service
 public class MediaService {
     private static final Logger log = LoggerFactory.getLogger(MediaService.class);
-    private static final long MAX_FILE_SIZE = 2L * 1024 * 1024;
     private static final String MEDIA_NOT_FOUND_MESSAGE = "Media not found with id: ";
+    private static final int MAX_BATCH_PRODUCT_IDS = 200;
 
     private final MediaRepository mediaRepository;
-    private final Path storageLocation;
+    private final MediaBlobService blobService;
+    private final MediaVariantService variantService;
+    private final HotMediaCache hotCache;
+    private final MediaStore store;
+    private final ExecutorService uploadExecutor;
+    private final int maxBatchFiles;
+    private final long maxFileSize;
     private final List<String> allowedTypes;
     private final String baseUrl;
 
     @Autowired
     public MediaService(MediaRepository mediaRepository,
-                       @Value("${media.storage.path:./uploads}") String storagePath,
+                       MediaBlobService blobService,
+                       MediaVariantService variantService,
+                       HotMediaCache hotCache,
+                       MediaStore store,
+                       @Qualifier("uploadExecutor") ExecutorService uploadExecutor,
+                       @Value("${media.upload.batch.max-files:10}") int maxBatchFiles,
+                       @Value("${media.upload.multipart.max-size:2097152}") long maxFileSize,
                        @Value("${media.allowed.types:image/png,image/jpeg,image/gif}") String allowedTypesStr,
                        @Value("${media.base.url:http://localhost:8080}") String baseUrl) {
         this.mediaRepository = mediaRepository;
-        this.storageLocation = Paths.get(storagePath).toAbsolutePath().normalize();
+        this.blobService = blobService;
+        this.variantService = variantService;
+        this.hotCache = hotCache;
+        this.store = store;
+        this.uploadExecutor = uploadExecutor;
+        this.maxBatchFiles = maxBatchFiles;
+        this.maxFileSize = maxFileSize;
         this.allowedTypes = List.of(allowedTypesStr.split(","));
         this.baseUrl = baseUrl;
 
+        log.info("Allowed file types: {}", this.allowedTypes);
+        log.info("Base URL for media: {}", this.baseUrl);
+    }
+
+    public MediaUploadResponse uploadMedia(MultipartFile file, String productId) {
+        validate(file);
         try {
-            Files.createDirectories(this.storageLocation);
-            log.info("Storage directory created at: {}", this.storageLocation);
-            log.info("Allowed file types: {}", this.allowedTypes);
-            log.info("Base URL for media: {}", this.baseUrl);
+            StoredUpload upload = store(file);
+            return saveUploaded(upload.blob(), upload.contentType(), upload.dimensions(), productId,
+                file.getOriginalFilename());
         } catch (IOException e) {
-            throw new StorageException("Could not create storage directory", e);
+            throw new StorageException("Failed to upload file", e);
         }
     }
 
-    public MediaUploadResponse uploadMedia(MultipartFile file, String productId) {
+    /**
+     * Uploads several files in one request: all are validated up front, stored in parallel on
+     * the upload executor, and their documents written with a single insert. Either every file
+     * is uploaded or, on any failure, none is.
+     */
+    public List<MediaUploadResponse> uploadMediaBatch(List<MultipartFile> files, String productId) {
+        if (files == null || files.isEmpty()) {
+            throw new IllegalArgumentException("Cannot upload an empty batch");
+        }
+        if (files.size() > maxBatchFiles) {
+            throw new IllegalArgumentException("At most " + maxBatchFiles + " files can be uploaded at once");
+        }
+        // Reject the whole batch before any bytes are stored
+        files.forEach(this::validate);
+
+        List<Future<StoredUpload>> pending = files.stream()
+            .map(file -> uploadExecutor.submit(() -> store(file)))
+            .toList();
+        List<StoredUpload> stored = new ArrayList<>(pending.size());
+        RuntimeException failure = null;
+        // Wait for every file, even after a failure, so no stored blob is left without its release
+        for (Future<StoredUpload> future : pending) {
+            try {
+                stored.add(awaitUninterruptibly(future));
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException runtime
+                        ? runtime
+                        : new StorageException("Failed to upload file", e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            stored.forEach(upload -> blobService.release(upload.blob().hash()));
+            throw failure;
+        }
+
+        List<Media> documents = stored.stream()
+            .map(upload -> newMedia(upload.blob(), upload.contentType(), upload.dimensions(), productId))
+            .toList();
+        List<Media> saved;
+        try {
+            saved = mediaRepository.insert(documents);
+        } catch (RuntimeException e) {
+            stored.forEach(upload -> blobService.release(upload.blob().hash()));
+            throw e;
+        }
+
+        log.info("Batch of {} media uploaded successfully for productId={}", saved.size(), productId);
+        saved.forEach(variantService::scheduleVariants);
+        return saved.stream().map(this::toUploadResponse).toList();
+    }
+
+    private void validate(MultipartFile file) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("Cannot upload empty file");
         }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException("File size exceeds maximum allowed size of 2MB");
+        if (file.getSize() > maxFileSize) {
+            throw new IllegalArgumentException("File size exceeds maximum allowed size of " + formatSize(maxFileSize));
         }
 
         String contentType = file.getContentType();
         if (contentType == null || !allowedTypes.contains(contentType.toLowerCase())) {
             throw new IllegalArgumentException("File type not allowed. Only PNG, JPG, and GIF images are accepted");
         }
+    }
 
-        try {
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = originalFilename != null && originalFilename.contains(".")
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                : "";
-            String uniqueFilename = UUID.randomUUID() + fileExtension;
+    // 2097152 -> "2MB", 524288 -> "512KB"
+    private static String formatSize(long bytes) {
+        if (bytes >= 1024 * 1024 && bytes % (1024 * 1024) == 0) {
+            return bytes / (1024 * 1024) + "MB";
+        }
+        return bytes % 1024 == 0 ? bytes / 1024 + "KB" : bytes + " bytes";
+    }
 
-            Path targetLocation = this.storageLocation.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Stores a validated file as a blob, checking its bytes against the declared type first.
+     */
+    private StoredUpload store(MultipartFile file) throws IOException {
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            // Sniff the header before storing anything so rejected bytes never reach the disk
+            byte[] header = new byte[ImageTypes.DIMENSIONS_HEADER_LENGTH];
+            in.mark(header.length);
+            int headerLength = in.readNBytes(header, 0, header.length);
+            in.reset();
+            String verifiedType = verifiedContentType(header, headerLength);
+            // From the same buffered bytes, so the upload is only read once
+            Dimensions dimensions = ImageTypes.dimensions(new ByteArrayInputStream(header, 0, headerLength));
 
-            Media media = new Media(
-                null,
-                uniqueFilename,
-                productId
-            );
+            // Identical bytes are stored once and shared between media documents
+            return new StoredUpload(blobService.store(in), verifiedType, dimensions);
+        }
+    }
 
-            Media savedMedia = mediaRepository.save(media);
+    private static <T> T awaitUninterruptibly(Future<T> future) throws ExecutionException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
 
-            log.info("Media uploaded successfully: id={}, filename={}, productId={}",
-                savedMedia.getId(), originalFilename, productId);
+    /**
+     * Creates the media document for a stored blob, dropping the blob reference again if that fails.
+     * {@code dimensions} may be null when the header could not be read.
+     */
+    MediaUploadResponse saveUploaded(StoredBlob blob, String contentType, Dimensions dimensions,
+                                     String productId, String originalFilename) {
+        Media savedMedia;
+        try {
+            savedMedia = mediaRepository.save(newMedia(blob, contentType, dimensions, productId));
+        } catch (RuntimeException e) {
+            blobService.release(blob.hash());
+            throw e;
+        }
 
-            String downloadUrl = baseUrl + "/api/media/" + savedMedia.getId();
+        log.info("Media uploaded successfully: id={}, filename={}, productId={}",
+            savedMedia.getId(), originalFilename, productId);
+        variantService.scheduleVariants(savedMedia);
+        return toUploadResponse(savedMedia);
+    }
 
-            return new MediaUploadResponse(
-                savedMedia.getId(),
-                "File uploaded successfully",
-                downloadUrl
-            );
+    private static Media newMedia(StoredBlob blob, String contentType, Dimensions dimensions, String productId) {
+        Media media = new Media(
+            null,
+            blob.filePath(),
+            productId
+        );
+        media.setContentType(contentType);
+        media.setSize(blob.size());
+        media.setContentHash(blob.hash());
+        media.setCreatedAt(Instant.now());
+        if (dimensions != null) {
+            media.setWidth(dimensions.width());
+            media.setHeight(dimensions.height());
+        }
+        return media;
+    }
 
-        } catch (IOException e) {
-            throw new StorageException("Failed to upload file", e);
+    private MediaUploadResponse toUploadResponse(Media media) {
+        String downloadUrl = baseUrl + "/api/media/" + media.getId();
+
+        return new MediaUploadResponse(
+            media.getId(),
+            "File uploaded successfully",
+            downloadUrl
+        );
+    }
+
+    /**
+     * The type the bytes actually are. Bytes matching no known image signature are refused
+     * whatever type was declared, as for the first chunk of a chunked upload.
+     */
+    private String verifiedContentType(byte[] header, int headerLength) {
+        String detected = ImageTypes.detect(header, headerLength);
+        if (detected == null || !allowedTypes.contains(detected)) {
+            throw new IllegalArgumentException("File type not allowed. Only PNG, JPG, and GIF images are accepted");
         }
+        return detected;
     }
 
     public List<MediaResponse> getAllMedia() {
@@ -111,64 +269,145 @@ public class MediaService {
             .toList();
     }
 
+    /**
+     * Media for many products with a single query. Every requested productId is present
+     * in the result, mapped to an empty list when it has no media.
+     */
+    public Map<String, List<MediaResponse>> getMediaByProductIds(List<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Map.of();
+        }
+        LinkedHashSet<String> unique = new LinkedHashSet<>(productIds);
+        unique.removeIf(id -> id == null || id.isBlank());
+        if (unique.size() > MAX_BATCH_PRODUCT_IDS) {
+            throw new IllegalArgumentException(
+                "At most " + MAX_BATCH_PRODUCT_IDS + " product ids can be requested at once");
+        }
+
+        Map<String, List<MediaResponse>> found = mediaRepository.findByProductIdIn(unique).stream()
+            .collect(Collectors.groupingBy(Media::getProductId,
+                Collectors.mapping(this::toResponse, Collectors.toList())));
+
+        Map<String, List<MediaResponse>> result = new LinkedHashMap<>();
+        unique.forEach(productId -> result.put(productId, found.getOrDefault(productId, List.of())));
+        return result;
+    }
+
     public MediaResponse getMediaById(String id) {
         Media media = mediaRepository.findById(id)
             .orElseThrow(() -> new MediaNotFoundException(MEDIA_NOT_FOUND_MESSAGE + id));
         return toResponse(media);
     }
 
-    public byte[] getMediaFile(String id) {
+    /**
+     * Resolves a media file for streaming. For documents with stored metadata this does no
+     * storage I/O at all, so conditional requests can be answered from the document alone.
+     * A requested {@code size} that has not been generated yet falls back to the original.
+     */
+    public MediaFile getMediaFile(String id, VariantSize size) {
         Media media = mediaRepository.findById(id)
             .orElseThrow(() -> new MediaNotFoundException(MEDIA_NOT_FOUND_MESSAGE + id));
 
-        try {
-            Path filePath = this.storageLocation.resolve(media.getFilePath()).normalize();
+        MediaVariant variant = size != null ? media.getVariants().get(size.key()) : null;
+        if (variant != null) {
+            Resource resource = new CachedMediaResource(hotCache, variant.getContentHash(),
+                store.get(blobService.blobKey(variant.getContentHash())), variant.getSize());
+            return new MediaFile(resource, variant.getContentType(), variant.getSize(),
+                variant.getContentHash(), media.getCreatedAt(), true);
+        }
+        // The fallback for a pending variant must not be cached as if it were the variant
+        boolean immutable = size == null;
 
-            // Path traversal protection: ensure the file is within the storage directory
-            if (!filePath.startsWith(this.storageLocation)) {
-                throw new StorageException("Invalid file path: path traversal detected");
-            }
+        Resource stored = store.get(StorageLayout.locate(store, media.getFilePath()));
 
-            return Files.readAllBytes(filePath);
+        // Media never changes after upload, so the id is a valid validator when no hash is stored
+        String etag = media.getContentHash() != null ? media.getContentHash() : media.getId();
+        if (media.getContentType() == null) {
+            // Uploaded before metadata was recorded: fall back to the file itself
+            return new MediaFile(stored, detectContentType(stored), -1,
+                etag, media.getCreatedAt(), immutable);
+        }
+        Resource resource = media.getContentHash() != null
+            ? new CachedMediaResource(hotCache, media.getContentHash(), stored, media.getSize())
+            : stored;
+        return new MediaFile(resource, media.getContentType(), media.getSize(),
+            etag, media.getCreatedAt(), immutable);
+    }
+
+    private static String detectContentType(Resource stored) {
+        byte[] header = new byte[ImageTypes.HEADER_LENGTH];
+        int read;
+        try (InputStream in = stored.getInputStream()) {
+            read = in.readNBytes(header, 0, header.length);
         } catch (IOException e) {
             throw new StorageException("Failed to read file", e);
         }
+        String detected = ImageTypes.detect(header, read);
+        return detected != null ? detected : ImageTypes.OCTET_STREAM;
     }
 
     public void deleteMedia(String id) {
         Media media = mediaRepository.findById(id)
             .orElseThrow(() -> new MediaNotFoundException(MEDIA_NOT_FOUND_MESSAGE + id));
 
-        try {
-            Path filePath = this.storageLocation.resolve(media.getFilePath()).normalize();
+        // Drop the document first: a failed release then leaks a file, never a dangling reference
+        mediaRepository.delete(media);
+        releaseFile(media);
+        log.info("Media deleted successfully: id={}", id);
+    }
 
-            // Path traversal protection: ensure the file is within the storage directory
-            if (!filePath.startsWith(this.storageLocation)) {
-                throw new StorageException("Invalid file path: path traversal detected");
-            }
+    public void deleteAllMediaByProductId(String productId) {
+        List<Media> mediaList = mediaRepository.findByProductId(productId);
+        deleteFilesAndDocuments(mediaList);
+        log.info("Deleted {} media files for product: {}", mediaList.size(), productId);
+    }
 
-            Files.deleteIfExists(filePath);
-            mediaRepository.delete(media);
-            log.info("Media deleted successfully: id={}", id);
-        } catch (IOException e) {
-            throw new StorageException("Failed to delete file", e);
+    /**
+     * Bulk variant used for cascade deletes: one query and one delete for many products.
+     */
+    public int deleteAllMediaByProductIds(List<String> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return 0;
+        }
+        if (productIds.size() > MAX_BATCH_PRODUCT_IDS) {
+            throw new IllegalArgumentException(
+                "At most " + MAX_BATCH_PRODUCT_IDS + " product ids can be deleted at once");
         }
+        List<Media> mediaList = mediaRepository.findByProductIdIn(productIds);
+        deleteFilesAndDocuments(mediaList);
+        log.info("Deleted {} media files for {} products", mediaList.size(), productIds.size());
+        return mediaList.size();
     }
 
-    public void deleteAllMediaByProductId(String productId) {
-        List<Media> mediaList = mediaRepository.findByProductId(productId);
+    private void deleteFilesAndDocuments(List<Media> mediaList) {
+        // One $in delete; deleteAll(entities) would remove the documents one by one
+        mediaRepository.deleteAllById(mediaList.stream().map(Media::getId).toList());
         mediaList.forEach(media -> {
             try {
-                Path filePath = this.storageLocation.resolve(media.getFilePath()).normalize();
-                if (filePath.startsWith(this.storageLocation)) {
-                    Files.deleteIfExists(filePath);
-                }
-            } catch (IOException e) {
-                log.error("Failed to delete file for media id: {}", media.getId(), e);
+                releaseFile(media);
+            } catch (RuntimeException e) {
+                // The garbage collector reconciles whatever is left behind
+                log.error("Failed to release file for media id: {}", media.getId(), e);
             }
         });
-        mediaRepository.deleteAll(mediaList);
-        log.info("Deleted {} media files for product: {}", mediaList.size(), productId);
+    }
+
+    /**
+     * Releases the media's references on its blobs. No file is touched here: files left without
+     * references, including per-upload files from before content addressing, are removed in the
+     * background by {@link MediaGarbageCollector}.
+     */
+    private void releaseFile(Media media) {
+        media.getVariants().values().forEach(variant -> {
+            hotCache.invalidate(variant.getContentHash());
+            blobService.release(variant.getContentHash());
+        });
+        if (media.getContentHash() != null) {
+            hotCache.invalidate(media.getContentHash());
+        }
+        if (blobService.isBlobBacked(media)) {
+            blobService.release(media.getContentHash());
+        }
     }
 
     private MediaResponse toResponse(Media media) {
@@ -176,7 +415,24 @@ public class MediaService {
         return new MediaResponse(
             media.getId(),
             media.getProductId(),
-            downloadUrl
+            downloadUrl,
+            media.getContentType(),
+            media.getSize(),
+            media.getCreatedAt() != null ? media.getCreatedAt().toString() : null,
+            media.getWidth(),
+            media.getHeight(),
+            media.getPlaceholder()
         );
     }
+
+    // An upload stored as a blob but not yet saved as a media document
+    private record StoredUpload(StoredBlob blob, String contentType, Dimensions dimensions) {}
+
+    /**
+     * A stored file ready to be streamed to the client. {@code contentLength} is -1 and
+     * {@code lastModified} null for media uploaded before metadata was recorded;
+     * {@code immutable} is false when standing in for a variant that is not ready yet.
+     */
+    public record MediaFile(Resource resource, String contentType, long contentLength,
+                            String etag, Instant lastModified, boolean immutable) {}
 }
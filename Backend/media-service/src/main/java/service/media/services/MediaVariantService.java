@@ -0,0 +1,184 @@
+package service.media.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import service.media.models.Media;
+import service.media.models.MediaVariant;
+import service.media.mongo_repo.MediaRepository;
+import service.media.services.MediaBlobService.StoredBlob;
+import service.media.store.MediaStore;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Generates the {@link VariantSize} renditions of uploaded images in the background, along with
+ * a tiny inline placeholder. Until a variant is recorded on the media document, downloads of
+ * that size fall back to the original. Images over {@code media.variants.max-pixels} get neither
+ * variants nor a placeholder, since both are rendered from the fully decoded original.
+ */
+@Service
+public class MediaVariantService {
+    private static final Logger log = LoggerFactory.getLogger(MediaVariantService.class);
+    // Longest edge of the placeholder; browsers blur it up, and it stays well under a kilobyte
+    private static final int PLACEHOLDER_EDGE = 16;
+
+    private final MediaRepository mediaRepository;
+    private final MediaBlobService blobService;
+    private final MediaStore store;
+    private final ExecutorService variantExecutor;
+    private final boolean enabled;
+    private final long maxPixels;
+
+    @Autowired
+    public MediaVariantService(MediaRepository mediaRepository,
+                               MediaBlobService blobService,
+                               MediaStore store,
+                               @Qualifier("variantExecutor") ExecutorService variantExecutor,
+                               @Value("${media.variants.enabled:true}") boolean enabled,
+                               @Value("${media.variants.max-pixels:25000000}") long maxPixels) {
+        this.mediaRepository = mediaRepository;
+        this.blobService = blobService;
+        this.store = store;
+        this.variantExecutor = variantExecutor;
+        this.enabled = enabled;
+        this.maxPixels = maxPixels;
+    }
+
+    public void scheduleVariants(Media media) {
+        if (enabled) {
+            variantExecutor.execute(() -> generateVariants(media));
+        }
+    }
+
+    void generateVariants(Media media) {
+        Map<String, MediaVariant> variants = new HashMap<>();
+        try {
+            BufferedImage original = decode(media);
+            if (original == null) {
+                return;
+            }
+            String format = "image/jpeg".equals(media.getContentType()) ? "jpeg" : "png";
+            for (VariantSize size : VariantSize.values()) {
+                // Images already within this size are served as they are
+                if (Math.max(original.getWidth(), original.getHeight()) > size.maxEdge()) {
+                    variants.put(size.key(), render(original, size.maxEdge(), format));
+                }
+            }
+            String placeholder = placeholder(original);
+            // Dimensions from the decoded image also fill in media uploaded before they were recorded
+            if (mediaRepository.findAndSetRenditionsById(media.getId(), variants, placeholder,
+                    original.getWidth(), original.getHeight()) == 0) {
+                // Deleted while we were rendering
+                releaseAll(variants);
+                return;
+            }
+            log.info("Generated {} variants and a placeholder for media {}", variants.size(), media.getId());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate variants for media {}", media.getId(), e);
+            releaseAll(variants);
+        }
+    }
+
+    /**
+     * Decodes the original, or returns null when it is not an image we can read or has more than
+     * {@code maxPixels} pixels. The size comes from the header first: a small, highly compressed
+     * file can still decode into a bitmap of gigabytes.
+     */
+    private BufferedImage decode(Media media) throws IOException {
+        try (InputStream in = store.get(StorageLayout.locate(store, media.getFilePath())).getInputStream();
+             ImageInputStream image = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = image != null ? ImageIO.getImageReaders(image) : null;
+            if (readers == null || !readers.hasNext()) {
+                log.debug("No image reader for media {}, serving the original only", media.getId());
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Media {} is {}x{}, over the {} pixel limit, serving the original only",
+                        media.getId(), width, height, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private MediaVariant render(BufferedImage original, int maxEdge, String format) throws IOException {
+        double scale = (double) maxEdge / Math.max(original.getWidth(), original.getHeight());
+        int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+        BufferedImage scaled = shrink(original, width, height, format);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(scaled, format, out);
+        StoredBlob blob = blobService.store(new ByteArrayInputStream(out.toByteArray()));
+        return new MediaVariant(blob.hash(), "image/" + format, blob.size(), width, height);
+    }
+
+    /**
+     * A data URI of the image shrunk to {@link #PLACEHOLDER_EDGE} pixels, small enough to inline
+     * in every metadata response.
+     */
+    private static String placeholder(BufferedImage original) throws IOException {
+        double scale = Math.min(1.0, (double) PLACEHOLDER_EDGE / Math.max(original.getWidth(), original.getHeight()));
+        int width = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(shrink(original, width, height, "png"), "png", out);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    private static BufferedImage shrink(BufferedImage original, int width, int height, String format) {
+        // Halve repeatedly before the final step; a single bilinear pass aliases on large reductions
+        BufferedImage current = original;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = scale(current, current.getWidth() / 2, current.getHeight() / 2, format);
+        }
+        return scale(current, width, height, format);
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height, String format) {
+        // JPEG has no alpha channel
+        int type = "jpeg".equals(format) ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void releaseAll(Map<String, MediaVariant> variants) {
+        variants.values().forEach(variant -> blobService.release(variant.getContentHash()));
+    }
+}
@@ -0,0 +1,41 @@
+package service.media.services;
+
+import service.media.store.MediaStore;
+
+import java.util.Locale;
+
+/**
+ * Where files live under the storage root: two directory levels named after the first four
+ * characters of the file name ({@code ab/cd/abcdef...}), which keeps every directory small
+ * for hashes and UUIDs alike. Files from before sharding sit flat in the root until migrated.
+ */
+final class StorageLayout {
+    private static final int PREFIX_LENGTH = 2;
+
+    private StorageLayout() {
+    }
+
+    static String shardedPath(String fileName) {
+        if (fileName.length() < 2 * PREFIX_LENGTH) {
+            return fileName;
+        }
+        String prefix = fileName.substring(0, 2 * PREFIX_LENGTH).toLowerCase(Locale.ROOT);
+        return prefix.substring(0, PREFIX_LENGTH) + "/" + prefix.substring(PREFIX_LENGTH) + "/" + fileName;
+    }
+
+    static boolean isFlat(String filePath) {
+        return filePath.indexOf('/') < 0;
+    }
+
+    /**
+     * The key a stored {@code filePath} can be read from right now. A flat file the migration
+     * has already moved into its shard, but whose document is not re-pointed yet, is found there.
+     */
+    static String locate(MediaStore store, String filePath) {
+        if (!isFlat(filePath) || store.exists(filePath)) {
+            return filePath;
+        }
+        String sharded = shardedPath(filePath);
+        return store.exists(sharded) ? sharded : filePath;
+    }
+}
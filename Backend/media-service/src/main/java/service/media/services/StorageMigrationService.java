@@ -0,0 +1,167 @@
+package service.media.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import service.media.exception.StorageException;
+import service.media.models.Media;
+import service.media.models.MediaBlob;
+import service.media.mongo_repo.MediaBlobRepository;
+import service.media.mongo_repo.MediaRepository;
+import service.media.store.FileSystemMediaStore;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Moves files stored flat in the storage root into the {@link StorageLayout} shards while the
+ * service keeps running. Progress lives in the documents themselves: anything whose
+ * {@code filePath} has no directory part still needs moving, so an interrupted run simply
+ * continues where it stopped the next time it is scheduled. Only the filesystem store ever
+ * had flat files, so the migration does not exist for other stores. A run holds a
+ * {@link JobLeases} lease, so instances sharing the storage directory never migrate at once.
+ */
+@Service
+@ConditionalOnProperty(name = "media.store.type", havingValue = "filesystem", matchIfMissing = true)
+public class StorageMigrationService {
+    private static final Logger log = LoggerFactory.getLogger(StorageMigrationService.class);
+    private static final String SEPARATOR = "/";
+    private static final String JOB = "media-storage-migration";
+    // Media ids are ObjectIds, which never compare greater than a plain string such as ""
+    private static final String LOWEST_OBJECT_ID = "000000000000000000000000";
+
+    private final MediaRepository mediaRepository;
+    private final MediaBlobRepository blobRepository;
+    private final MediaBlobService blobService;
+    private final FileSystemMediaStore store;
+    private final JobLeases leases;
+    private final boolean enabled;
+    private final int batchSize;
+
+    @Autowired
+    public StorageMigrationService(MediaRepository mediaRepository,
+                                   MediaBlobRepository blobRepository,
+                                   MediaBlobService blobService,
+                                   FileSystemMediaStore store,
+                                   JobLeases leases,
+                                   @Value("${media.storage.migration.enabled:true}") boolean enabled,
+                                   @Value("${media.storage.migration.batch-size:500}") int batchSize) {
+        this.mediaRepository = mediaRepository;
+        this.blobRepository = blobRepository;
+        this.blobService = blobService;
+        this.store = store;
+        this.leases = leases;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${media.storage.migration.initial-delay-ms:10000}",
+               fixedDelayString = "${media.storage.migration.interval-ms:3600000}")
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        try (JobLeases.Lease lease = leases.acquire(JOB)) {
+            if (lease == null) {
+                log.debug("Storage migration is running on another instance");
+                return;
+            }
+            // Blobs first, re-pointing their media as they go; the media pass then only finds legacy files
+            long blobs = migrateBlobs(lease);
+            long media = migrateMedia(lease);
+            if (blobs + media > 0) {
+                log.info("Storage migration moved {} blobs and {} media files into shards", blobs, media);
+            }
+        }
+    }
+
+    private long migrateBlobs(JobLeases.Lease lease) {
+        long migrated = 0;
+        String lastId = "";
+        List<MediaBlob> batch;
+        // Keyset pagination on the hash, so a blob that keeps failing is retried next run
+        // instead of being fetched again and again in this one
+        do {
+            batch = blobRepository.findByIdGreaterThanAndFilePathNotContaining(lastId, SEPARATOR,
+                PageRequest.of(0, batchSize, Sort.by("id")));
+            for (MediaBlob blob : batch) {
+                try {
+                    migrateBlob(blob.getId());
+                    migrated++;
+                } catch (StorageException e) {
+                    log.error("Failed to migrate blob {}", blob.getId(), e);
+                }
+                lastId = blob.getId();
+            }
+        } while (batch.size() == batchSize && lease.renew());
+        return migrated;
+    }
+
+    private long migrateMedia(JobLeases.Lease lease) {
+        long migrated = 0;
+        String lastId = LOWEST_OBJECT_ID;
+        List<Media> batch;
+        do {
+            batch = mediaRepository.findByIdGreaterThanAndFilePathNotContaining(lastId, SEPARATOR,
+                PageRequest.of(0, batchSize, Sort.by("id")));
+            for (Media media : batch) {
+                if (migrate(media)) {
+                    migrated++;
+                }
+                lastId = media.getId();
+            }
+        } while (batch.size() == batchSize && lease.renew());
+        return migrated;
+    }
+
+    private boolean migrate(Media media) {
+        String target = StorageLayout.shardedPath(media.getFilePath());
+        if (StorageLayout.isFlat(target)) {
+            log.warn("Media {} has a file name too short to shard: {}", media.getId(), media.getFilePath());
+            return false;
+        }
+        try {
+            if (blobService.isBlobBacked(media)) {
+                // Shared file, moved together with every media pointing at it
+                migrateBlob(media.getContentHash());
+            } else {
+                moveFile(media.getFilePath(), target);
+                // A crash before this update is harmless: the next run finds the file already moved
+                mediaRepository.findAndSetFilePathById(media.getId(), target);
+            }
+            return true;
+        } catch (StorageException e) {
+            log.error("Failed to migrate media {}", media.getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Moves a blob's file into its shard under the blob's lock, so it cannot be purged or
+     * re-added halfway through, and re-points the blob and the media sharing it in the same
+     * step. Downloads in the moment between the move and the updates fall back to the shard
+     * (see {@link StorageLayout#locate}). Safe to repeat: a blob already moved is left alone.
+     */
+    private void migrateBlob(String hash) {
+        String target = blobService.blobKey(hash);
+        blobService.withLock(hash, () -> {
+            moveFile(hash, target);
+            blobRepository.findAndSetFilePathById(hash, target);
+            mediaRepository.findAndSetFilePathByFilePath(hash, target);
+        });
+    }
+
+    private void moveFile(String flatPath, String shardedPath) {
+        try {
+            store.move(flatPath, shardedPath);
+        } catch (IOException e) {
+            throw new StorageException("Failed to move " + flatPath, e);
+        }
+    }
+}
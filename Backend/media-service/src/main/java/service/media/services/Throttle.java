@@ -0,0 +1,27 @@
+package service.media.services;
+
+/**
+ * Paces background work to a fixed rate: {@link #acquire(long)} blocks until the permits taken
+ * so far fit within {@code permitsPerSecond}. Used for file deletions and for bytes read. A rate
+ * of zero or less disables throttling. Not thread-safe; each job run uses its own instance.
+ */
+final class Throttle {
+    private final double intervalNanos;
+    private long next = System.nanoTime();
+
+    Throttle(double permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond > 0 ? 1_000_000_000d / permitsPerSecond : 0;
+    }
+
+    void acquire() throws InterruptedException {
+        acquire(1);
+    }
+
+    void acquire(long permits) throws InterruptedException {
+        long wait = next - System.nanoTime();
+        if (wait > 0) {
+            Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        }
+        next = Math.max(next, System.nanoTime()) + (long) (permits * intervalNanos);
+    }
+}
@@ -0,0 +1,42 @@
+package service.media.services;
+
+import java.util.Locale;
+
+/**
+ * The fixed set of downscaled renditions generated for every image, by longest edge in pixels.
+ */
+public enum VariantSize {
+    THUMB("thumb", 320),
+    MEDIUM("medium", 960);
+
+    private final String key;
+    private final int maxEdge;
+
+    VariantSize(String key, int maxEdge) {
+        this.key = key;
+        this.maxEdge = maxEdge;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public int maxEdge() {
+        return maxEdge;
+    }
+
+    /**
+     * Parses a {@code ?size=} value; null or blank means the original.
+     */
+    public static VariantSize fromKey(String key) {
+        if (key == null || key.isBlank()) {
+            return null;
+        }
+        for (VariantSize size : values()) {
+            if (size.key.equals(key.toLowerCase(Locale.ROOT))) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Unknown size: " + key + ". Use thumb or medium");
+    }
+}
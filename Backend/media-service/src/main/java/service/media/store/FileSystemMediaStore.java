@@ -0,0 +1,135 @@
+package service.media.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import service.media.exception.StorageException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Media stored as files under {@code media.storage.path}. Directories whose name starts with
+ * a dot hold working files, not media, and are never listed.
+ */
+@Component
+@ConditionalOnProperty(name = "media.store.type", havingValue = "filesystem", matchIfMissing = true)
+public class FileSystemMediaStore implements MediaStore {
+    private static final Logger log = LoggerFactory.getLogger(FileSystemMediaStore.class);
+
+    private final Path root;
+
+    public FileSystemMediaStore(@Value("${media.storage.path:./uploads}") String storagePath) {
+        this.root = Paths.get(storagePath).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(root);
+            log.info("Storage directory created at: {}", root);
+        } catch (IOException e) {
+            throw new StorageException("Could not create storage directory", e);
+        }
+    }
+
+    @Override
+    public void put(String key, InputStream content) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        // Write beside the target and rename, so readers never see a partial file
+        Path partial = Files.createTempFile(target.getParent(), ".put-", ".tmp");
+        try {
+            Files.copy(content, partial, StandardCopyOption.REPLACE_EXISTING);
+            moveIntoPlace(partial, target);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    @Override
+    public void putFile(String key, Path file) throws IOException {
+        moveIntoPlace(file, resolve(key));
+    }
+
+    @Override
+    public Resource get(String key) {
+        return new FileSystemResource(resolve(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(resolve(key));
+    }
+
+    @Override
+    public long delete(String key) throws IOException {
+        Path path = resolve(key);
+        long size = Files.exists(path) ? Files.size(path) : 0;
+        return Files.deleteIfExists(path) ? size : 0;
+    }
+
+    @Override
+    public Stream<StoredObject> list() throws IOException {
+        return Files.walk(root)
+            .filter(path -> !isHidden(root.relativize(path)))
+            .map(this::describe)
+            .filter(Objects::nonNull);
+    }
+
+    /**
+     * Renames the file; a missing source is not an error, since a repeated move finds it already done.
+     */
+    @Override
+    public void move(String fromKey, String toKey) throws IOException {
+        Path source = resolve(fromKey);
+        if (Files.exists(source)) {
+            moveIntoPlace(source, resolve(toKey));
+        }
+    }
+
+    private StoredObject describe(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return null;
+            }
+            String key = root.relativize(path).toString().replace(File.separatorChar, '/');
+            return new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toInstant());
+        } catch (IOException e) {
+            return null; // Deleted while listing
+        }
+    }
+
+    private static boolean isHidden(Path relative) {
+        return relative.getNameCount() > 0 && relative.getName(0).toString().startsWith(".");
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+
+        // Path traversal protection: ensure the file is within the storage directory
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new StorageException("Invalid file path: path traversal detected");
+        }
+        return path;
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
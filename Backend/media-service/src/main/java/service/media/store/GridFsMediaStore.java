@@ -0,0 +1,134 @@
+package service.media.store;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.gridfs.GridFsCriteria.whereFilename;
+
+/**
+ * Media stored in MongoDB GridFS, with the key as the GridFS filename. Nothing lives on the
+ * node itself, so several media-service replicas can run behind the gateway. Uploads still
+ * stage on local disk while they arrive; chunked upload sessions therefore need the gateway
+ * to keep a client on one replica until the upload completes.
+ */
+@Component
+@ConditionalOnProperty(name = "media.store.type", havingValue = "gridfs")
+public class GridFsMediaStore implements MediaStore {
+    private static final Logger log = LoggerFactory.getLogger(GridFsMediaStore.class);
+    private static final int LIST_BATCH_SIZE = 500;
+
+    private final GridFsTemplate gridFsTemplate;
+
+    public GridFsMediaStore(GridFsTemplate gridFsTemplate) {
+        this.gridFsTemplate = gridFsTemplate;
+        log.info("Storing media in MongoDB GridFS");
+    }
+
+    @Override
+    public void put(String key, InputStream content) throws IOException {
+        // Store the new copy before dropping old ones, so the key never reads as missing
+        List<Object> previous = new ArrayList<>();
+        gridFsTemplate.find(byKey(key)).forEach(file -> previous.add(file.getId()));
+        gridFsTemplate.store(content, key);
+        if (!previous.isEmpty()) {
+            gridFsTemplate.delete(Query.query(where("_id").in(previous)));
+        }
+    }
+
+    @Override
+    public Resource get(String key) {
+        return new LazyGridFsResource(key);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return gridFsTemplate.findOne(byKey(key)) != null;
+    }
+
+    @Override
+    public long delete(String key) {
+        long size = 0;
+        for (GridFSFile file : gridFsTemplate.find(byKey(key))) {
+            size += file.getLength();
+        }
+        gridFsTemplate.delete(byKey(key));
+        return size;
+    }
+
+    @Override
+    public Stream<StoredObject> list() {
+        // Keys under a dot-prefixed first segment are working files, as on the filesystem
+        Query media = Query.query(whereFilename().not().regex("^\\."));
+        var files = gridFsTemplate.find(media).batchSize(LIST_BATCH_SIZE).iterator();
+        Iterable<GridFSFile> iterable = () -> files;
+        return StreamSupport.stream(iterable.spliterator(), false)
+            .map(file -> new StoredObject(file.getFilename(), file.getLength(), file.getUploadDate().toInstant()))
+            .onClose(files::close);
+    }
+
+    private static Query byKey(String key) {
+        return Query.query(whereFilename().is(key));
+    }
+
+    /**
+     * Looks the file up only when it is read, so 304 and HEAD responses cost no GridFS query.
+     */
+    private final class LazyGridFsResource extends AbstractResource {
+        private final String key;
+
+        LazyGridFsResource(String key) {
+            this.key = key;
+        }
+
+        private GridFsResource resolve() throws FileNotFoundException {
+            GridFsResource resource = gridFsTemplate.getResource(key);
+            if (!resource.exists()) {
+                throw new FileNotFoundException("No GridFS file named " + key);
+            }
+            return resource;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            // GridFSDownloadStream seeks by chunk when skipping, so ranges do not read the prefix
+            return resolve().getInputStream();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return resolve().contentLength();
+        }
+
+        @Override
+        public boolean exists() {
+            return GridFsMediaStore.this.exists(key);
+        }
+
+        @Override
+        public String getFilename() {
+            return key;
+        }
+
+        @Override
+        public String getDescription() {
+            return "GridFS file [" + key + "]";
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package service.media.store;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Where media bytes live. Keys are the relative paths recorded as {@code filePath} on media and
+ * blob documents. The implementation is chosen with {@code media.store.type}: {@code filesystem}
+ * (the default) keeps files under {@code media.storage.path} on one node, {@code gridfs} keeps
+ * them in MongoDB so any number of stateless replicas can serve them.
+ */
+public interface MediaStore {
+
+    /**
+     * Streams {@code content} into the store under {@code key}, replacing what was there.
+     */
+    void put(String key, InputStream content) throws IOException;
+
+    /**
+     * Stores a fully written local file under {@code key}. The local file may be moved rather
+     * than copied, so callers must not use it afterwards.
+     */
+    default void putFile(String key, Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            put(key, in);
+        }
+    }
+
+    /**
+     * The stored object as a resource. No I/O happens until it is read, and its input stream
+     * skips efficiently, so Spring can answer Range requests from it.
+     */
+    Resource get(String key);
+
+    boolean exists(String key);
+
+    /**
+     * Removes the object, returning the bytes freed (0 if there was nothing to remove).
+     */
+    long delete(String key) throws IOException;
+
+    /**
+     * Moves a stored object to a new key, replacing anything there; a missing source is not an
+     * error. Stores that can rename in place override this copy.
+     */
+    default void move(String fromKey, String toKey) throws IOException {
+        if (!exists(fromKey)) {
+            return;
+        }
+        try (InputStream in = get(fromKey).getInputStream()) {
+            put(toKey, in);
+        }
+        delete(fromKey);
+    }
+
+    /**
+     * Every stored object, streamed lazily. Callers must close the stream. Keys whose first
+     * segment starts with a dot (such as {@code .quarantine/}) hold working files and are not listed.
+     */
+    Stream<StoredObject> list() throws IOException;
+
+    record StoredObject(String key, long size, Instant lastModified) {}
+}
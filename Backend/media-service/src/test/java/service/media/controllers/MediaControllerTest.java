@@ -1,16 +1,25 @@
 package service.media.controllers;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import service.media.config.TestSecurityConfig;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -24,9 +33,18 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @Import(TestSecurityConfig.class)
 class MediaControllerTest {
 
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A};
+
     @Autowired
     private MockMvc mockMvc;
 
+    // Uploads must start with a recognised image signature; the rest of the bytes are not decoded
+    private static byte[] png(String body) {
+        byte[] bytes = Arrays.copyOf(PNG_SIGNATURE, PNG_SIGNATURE.length + body.length());
+        System.arraycopy(body.getBytes(), 0, bytes, PNG_SIGNATURE.length, body.length());
+        return bytes;
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = {"SELLER"})
     void testUploadImage_WithValidFile_ShouldReturnOk() throws Exception {
@@ -34,13 +52,36 @@ class MediaControllerTest {
             "file",
             "test-image.jpg",
             "image/jpeg",
-            "test image content".getBytes()
+            new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 't', 'e', 's', 't'}
         );
 
         mockMvc.perform(multipart("/api/media/upload").file(file))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testUploadBatch_ShouldReturnIdForEveryFile() throws Exception {
+        MockMultipartFile first = new MockMultipartFile("files", "a.png", "image/png", png("gallery a"));
+        MockMultipartFile second = new MockMultipartFile("files", "b.png", "image/png", png("gallery b"));
+
+        String body = mockMvc.perform(multipart("/api/media/upload/batch").file(first).file(second)
+                        .param("productId", "gallery-product"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andReturn().getResponse().getContentAsString();
+        String secondId = JsonPath.read(body, "$[1].id");
+
+        mockMvc.perform(get("/api/media/" + secondId))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(png("gallery b")));
+
+        // One invalid file rejects the whole batch
+        MockMultipartFile empty = new MockMultipartFile("files", "c.png", "image/png", new byte[0]);
+        mockMvc.perform(multipart("/api/media/upload/batch").file(first).file(empty))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = {"SELLER"})
     void testUploadImage_WithEmptyFile_ShouldReturnBadRequest() throws Exception {
@@ -55,12 +96,215 @@ class MediaControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testGetImage_WithRangeHeader_ShouldReturnPartialContent() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+            "file",
+            "range.png",
+            "image/png",
+            png("0123456789")
+        );
+        String body = mockMvc.perform(multipart("/api/media/upload").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(body, "$.id");
+
+        mockMvc.perform(get("/api/media/" + id).header("Range", "bytes=10-13"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-13/18"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testUploadImage_WithUnrecognisedBytes_ShouldReturnBadRequest() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "fake.png", "image/png", "not an image".getBytes());
+
+        mockMvc.perform(multipart("/api/media/upload").file(file))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testHeadImage_ShouldReturnStoredMetadata() throws Exception {
+        byte[] png = {(byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A, 0x00};
+        MockMultipartFile file = new MockMultipartFile("file", "head.png", "image/jpeg", png);
+        String body = mockMvc.perform(multipart("/api/media/upload").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(body, "$.id");
+
+        // The detected type wins over the declared one, and HEAD is served from metadata
+        mockMvc.perform(head("/api/media/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "image/png"))
+                .andExpect(header().longValue("Content-Length", png.length));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testGetImage_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "etag.png", "image/png", png("etag"));
+        String body = mockMvc.perform(multipart("/api/media/upload").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(body, "$.id");
+
+        String etag = mockMvc.perform(get("/api/media/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.containsString("immutable")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/media/" + id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testDeleteImage_SharedContent_ShouldKeepOtherReferences() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "shared.png", "image/png", png("shared bytes"));
+        String first = JsonPath.read(mockMvc.perform(multipart("/api/media/upload").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+        String second = JsonPath.read(mockMvc.perform(multipart("/api/media/upload").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        mockMvc.perform(delete("/api/media/" + first))
+                .andExpect(status().is2xxSuccessful());
+
+        // Both uploads share one stored file, which must outlive the first delete
+        mockMvc.perform(get("/api/media/" + second))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(png("shared bytes")));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testGetImage_WithPendingVariant_ShouldFallBackToOriginal() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "small.png", "image/png", png("small"));
+        String id = JsonPath.read(mockMvc.perform(multipart("/api/media/upload").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        // No variant exists for these bytes, so the original is served but not cached as the thumbnail
+        mockMvc.perform(get("/api/media/" + id).param("size", "thumb"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andExpect(content().bytes(png("small")));
+
+        mockMvc.perform(get("/api/media/" + id).param("size", "huge"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testChunkedUpload_ShouldResumeAndComplete() throws Exception {
+        byte[] png = {(byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A, 1, 2, 3, 4, 5, 6, 7, 8};
+        String session = mockMvc.perform(post("/api/media/uploads")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fileName\":\"chunked.png\",\"contentType\":\"image/png\",\"size\":16}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String uploadId = JsonPath.read(session, "$.uploadId");
+
+        mockMvc.perform(put("/api/media/uploads/" + uploadId).param("offset", "0")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOfRange(png, 0, 10)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.offset").value(10));
+
+        // A chunk sent for the wrong offset is refused with the offset to resume from
+        mockMvc.perform(put("/api/media/uploads/" + uploadId).param("offset", "4")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOfRange(png, 4, 16)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.offset").value("10"));
+
+        mockMvc.perform(put("/api/media/uploads/" + uploadId).param("offset", "10")
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(Arrays.copyOfRange(png, 10, 16)))
+                .andExpect(status().isOk());
+
+        String body = mockMvc.perform(post("/api/media/uploads/" + uploadId + "/complete"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(body, "$.id");
+
+        mockMvc.perform(get("/api/media/" + id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "image/png"))
+                .andExpect(content().bytes(png));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testGetMediaInfo_ShouldIncludeDimensionsFromUpload() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB), "png", png);
+        MockMultipartFile file = new MockMultipartFile("file", "sized.png", "image/png", png.toByteArray());
+        String id = JsonPath.read(mockMvc.perform(multipart("/api/media/upload").file(file))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), "$.id");
+
+        // Read from the header at upload, before any variant job has run
+        mockMvc.perform(get("/api/media/" + id + "/info"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.width").value(40))
+                .andExpect(jsonPath("$.height").value(30));
+    }
+
     @Test
     void testGetImage_NonExistent_ShouldReturnNotFound() throws Exception {
         mockMvc.perform(get("/api/media/nonexistent-image.jpg"))
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void testGetMediaByProductIds_ShouldListEveryRequestedProduct() throws Exception {
+        mockMvc.perform(post("/api/media/by-products")
+                .contentType("application/json")
+                .content("{\"productIds\": [\"no-media-product\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['no-media-product']").isArray())
+                .andExpect(jsonPath("$['no-media-product'].length()").value(0));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testDeleteMediaByProductIds_ShouldRemoveMediaOfEveryProduct() throws Exception {
+        for (String productId : new String[]{"cascade-a", "cascade-a", "cascade-b"}) {
+            MockMultipartFile file = new MockMultipartFile("file", "cascade.png", "image/png", png(productId));
+            mockMvc.perform(multipart("/api/media/upload").file(file).param("productId", productId))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/api/media/internal/products/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productIds\": [\"cascade-a\", \"cascade-b\", \"cascade-none\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Deleted 3 media files"));
+
+        mockMvc.perform(post("/api/media/by-products")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productIds\": [\"cascade-a\", \"cascade-b\"]}"))
+                .andExpect(jsonPath("$['cascade-a'].length()").value(0))
+                .andExpect(jsonPath("$['cascade-b'].length()").value(0));
+    }
+
+    @Test
+    void testDeleteMediaByProductIds_TooManyProducts_ShouldReturnBadRequest() throws Exception {
+        String ids = IntStream.range(0, 201)
+                .mapToObj(i -> "\"product-" + i + "\"")
+                .collect(Collectors.joining(","));
+
+        mockMvc.perform(post("/api/media/internal/products/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productIds\": [" + ids + "]}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testGetAllMedia_ShouldReturnOk() throws Exception {
         mockMvc.perform(get("/api/media"))
@@ -0,0 +1,58 @@
+package service.media.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: Rate Limiting Filter Tests
+ * Tests for charging single and batch uploads against the per-IP limit
+ */
+class RateLimitingFilterTest {
+
+    private final RateLimitingFilter filter = new RateLimitingFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "maxRequestsPerMinute", 5);
+        ReflectionTestUtils.setField(filter, "timeWindowMs", 60_000L);
+    }
+
+    private int upload(String uri, int files) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        for (int i = 0; i < files; i++) {
+            request.addPart(new MockPart("files", "image-" + i + ".png", new byte[]{1}));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    @Test
+    void testSingleUploads_OverLimit_ShouldBeRejected() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, upload("/api/media/upload", 0));
+        }
+
+        assertEquals(429, upload("/api/media/upload", 0));
+    }
+
+    @Test
+    void testBatchUpload_ShouldBeChargedPerFile() throws Exception {
+        assertEquals(200, upload("/api/media/upload/batch", 4));
+
+        // Four of the five uploads are used up, so a second batch of two goes over
+        assertEquals(429, upload("/api/media/upload/batch", 2));
+    }
+
+    @Test
+    void testBatchUpload_OverLimitOnItsOwn_ShouldBeRejected() throws Exception {
+        assertEquals(429, upload("/api/media/upload/batch", 6));
+    }
+}
@@ -0,0 +1,115 @@
+package service.media.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: Hot Media Cache Tests
+ * Tests for admission, eviction and invalidation of off-heap cached media
+ */
+class HotMediaCacheTest {
+
+    private static final int PAGE = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private Path file(String name, int size) throws Exception {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return Files.write(dir.resolve(name), bytes);
+    }
+
+    private static byte[] readAll(InputStream in) throws Exception {
+        try (in) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void testOpen_ShouldAdmitOnlyAfterMinHits() throws Exception {
+        HotMediaCache cache = new HotMediaCache(4L * PAGE, PAGE * 2L, 2);
+        Path path = file("a", PAGE + 10);
+
+        assertNull(cache.open("a", new FileSystemResource(path), Files.size(path)), "First request should be served from disk");
+
+        byte[] expected = Files.readAllBytes(path);
+        InputStream cached = cache.open("a", new FileSystemResource(path), expected.length);
+        assertNotNull(cached, "Second request should be admitted");
+        assertArrayEquals(expected, readAll(cached));
+
+        // Served from memory now, even with the file gone
+        Files.delete(path);
+        assertArrayEquals(expected, readAll(cache.open("a", new FileSystemResource(path), expected.length)));
+    }
+
+    @Test
+    void testOpen_LargerThanEntryLimit_ShouldNotBeCached() throws Exception {
+        HotMediaCache cache = new HotMediaCache(4L * PAGE, PAGE, 1);
+        Path path = file("big", PAGE + 1);
+
+        assertNull(cache.open("big", new FileSystemResource(path), Files.size(path)));
+        assertNull(cache.open("big", new FileSystemResource(path), Files.size(path)));
+    }
+
+    @Test
+    void testOpen_ShouldNotEvictMorePopularEntry() throws Exception {
+        HotMediaCache cache = new HotMediaCache(PAGE, PAGE, 1);
+        Path hot = file("hot", 100);
+        Path cold = file("cold", 100);
+
+        for (int i = 0; i < 5; i++) {
+            readAll(cache.open("hot", new FileSystemResource(hot), 100));
+        }
+        assertNull(cache.open("cold", new FileSystemResource(cold), 100), "A rarely used file should not displace a hot one");
+
+        for (int i = 0; i < 10; i++) {
+            cache.open("cold", new FileSystemResource(cold), 100);
+        }
+        InputStream replaced = cache.open("cold", new FileSystemResource(cold), 100);
+        assertNotNull(replaced, "Once more popular it should take the space");
+        assertArrayEquals(Files.readAllBytes(cold), readAll(replaced));
+    }
+
+    @Test
+    void testInvalidate_ShouldKeepOpenStreamsReadable() throws Exception {
+        HotMediaCache cache = new HotMediaCache(PAGE, PAGE, 1);
+        Path path = file("a", 1000);
+        byte[] expected = Files.readAllBytes(path);
+
+        InputStream open = cache.open("a", new FileSystemResource(path), 1000);
+        assertNotNull(open);
+        cache.invalidate("a");
+
+        // The pages must not be reused while the first stream is still reading them
+        Path other = file("b", 1000);
+        assertNull(cache.open("b", new FileSystemResource(other), 1000));
+        assertArrayEquals(expected, readAll(open));
+
+        assertNotNull(cache.open("b", new FileSystemResource(other), 1000), "Pages are reusable once the stream is closed");
+    }
+
+    @Test
+    void testOpen_WithSkip_ShouldReadRangeAcrossPages() throws Exception {
+        HotMediaCache cache = new HotMediaCache(4L * PAGE, 4L * PAGE, 1);
+        Path path = file("range", 2 * PAGE + 5);
+        byte[] expected = Files.readAllBytes(path);
+
+        try (InputStream in = cache.open("range", new FileSystemResource(path), expected.length)) {
+            assertNotNull(in);
+            assertEquals(PAGE - 3, in.skip(PAGE - 3));
+            byte[] slice = in.readNBytes(10);
+            for (int i = 0; i < slice.length; i++) {
+                assertEquals(expected[PAGE - 3 + i], slice[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package service.media.services;
+
+import org.junit.jupiter.api.Test;
+import service.media.services.ImageTypes.Dimensions;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: Image Types Tests
+ * Tests for signature detection and reading dimensions from a buffered header
+ */
+class ImageTypesTest {
+
+    private static byte[] encode(String format, int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testDetect_ShouldRecogniseSignatures() throws Exception {
+        byte[] png = encode("png", 4, 4);
+        byte[] jpeg = encode("jpeg", 4, 4);
+
+        assertEquals(ImageTypes.PNG, ImageTypes.detect(png, png.length));
+        assertEquals(ImageTypes.JPEG, ImageTypes.detect(jpeg, jpeg.length));
+        assertNull(ImageTypes.detect("not an image".getBytes(), 12));
+    }
+
+    @Test
+    void testDimensions_FromTruncatedHeader_ShouldReadSize() throws Exception {
+        byte[] png = encode("png", 640, 480);
+
+        // Only the leading bytes an upload buffers while sniffing its type
+        Dimensions dimensions = ImageTypes.dimensions(new ByteArrayInputStream(png, 0, 64));
+
+        assertEquals(new Dimensions(640, 480), dimensions);
+    }
+
+    @Test
+    void testDimensions_HeaderEndsBeforeSize_ShouldReturnNull() throws Exception {
+        byte[] png = encode("png", 640, 480);
+
+        assertNull(ImageTypes.dimensions(new ByteArrayInputStream(png, 0, ImageTypes.HEADER_LENGTH)));
+        assertNull(ImageTypes.dimensions(new ByteArrayInputStream("not an image".getBytes())));
+    }
+}
@@ -0,0 +1,90 @@
+package service.media.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import service.media.exception.StorageException;
+import service.media.mongo_repo.MediaBlobRepository;
+import service.media.store.FileSystemMediaStore;
+import service.media.store.MediaStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AUDIT TEST: Media Blob Service Tests
+ * Tests for claiming and purging tombstoned blobs
+ */
+class MediaBlobServiceTest {
+
+    private static final String HASH = "abcdef0123456789";
+
+    @TempDir
+    Path dir;
+
+    private final MediaBlobRepository blobRepository = mock(MediaBlobRepository.class);
+    private FileSystemMediaStore store;
+    private MediaBlobService blobService;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileSystemMediaStore(dir.toString());
+        blobService = new MediaBlobService(blobRepository, store, dir.toString());
+    }
+
+    private void storeFile(String key, String content) throws IOException {
+        store.put(key, new ByteArrayInputStream(content.getBytes()));
+    }
+
+    @Test
+    void testPurge_NotClaimed_ShouldKeepFiles() throws Exception {
+        storeFile(blobService.blobKey(HASH), "content");
+        // Referenced again, released after the cutoff, or claimed by another purge
+        when(blobRepository.claimPurge(eq(HASH), any(), any(), anyString(), any())).thenReturn(0L);
+
+        assertEquals(-1, blobService.purge(HASH, Instant.now()));
+
+        assertTrue(store.exists(blobService.blobKey(HASH)));
+        verify(blobRepository, never()).deleteByIdAndPurgeToken(anyString(), anyString());
+    }
+
+    @Test
+    void testPurge_Claimed_ShouldDeleteShardedAndFlatFilesThenDocument() throws Exception {
+        storeFile(blobService.blobKey(HASH), "sharded");
+        storeFile(HASH, "flat");
+        when(blobRepository.claimPurge(eq(HASH), any(), any(), anyString(), any())).thenReturn(1L);
+        Instant cutoff = Instant.now().minus(Duration.ofHours(1));
+
+        assertEquals("sharded".length() + "flat".length(), blobService.purge(HASH, cutoff));
+
+        assertFalse(store.exists(blobService.blobKey(HASH)));
+        assertFalse(store.exists(HASH));
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(blobRepository).claimPurge(eq(HASH), eq(cutoff), any(), token.capture(), any());
+        // Deleted only under the token it claimed, never by id alone
+        verify(blobRepository).deleteByIdAndPurgeToken(HASH, token.getValue());
+    }
+
+    @Test
+    void testPurge_StorageFailure_ShouldReleaseClaim() throws Exception {
+        MediaStore failing = mock(MediaStore.class);
+        when(failing.delete(anyString())).thenThrow(new IOException("disk gone"));
+        MediaBlobService service = new MediaBlobService(blobRepository, failing, dir.toString());
+        when(blobRepository.claimPurge(eq(HASH), any(), any(), anyString(), any())).thenReturn(1L);
+
+        assertThrows(StorageException.class, () -> service.purge(HASH, Instant.now()));
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(blobRepository).claimPurge(eq(HASH), any(), any(), token.capture(), any());
+        verify(blobRepository).findAndClearPurgeByIdAndPurgeToken(HASH, token.getValue());
+        verify(blobRepository, never()).deleteByIdAndPurgeToken(anyString(), anyString());
+    }
+}
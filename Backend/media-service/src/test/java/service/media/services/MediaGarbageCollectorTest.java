@@ -0,0 +1,133 @@
+package service.media.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import service.media.models.Media;
+import service.media.models.MediaBlob;
+import service.media.mongo_repo.MediaBlobRepository;
+import service.media.mongo_repo.MediaRepository;
+import service.media.store.FileSystemMediaStore;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AUDIT TEST: Media Garbage Collector Tests
+ * Tests for purging tombstoned blobs and sweeping orphaned files
+ */
+class MediaGarbageCollectorTest {
+
+    private static final long GRACE_MS = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path dir;
+
+    private final MediaRepository mediaRepository = mock(MediaRepository.class);
+    private final MediaBlobRepository blobRepository = mock(MediaBlobRepository.class);
+    private final MediaBlobService blobService = mock(MediaBlobService.class);
+    private final JobLeases.Lease lease = mock(JobLeases.Lease.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FileSystemMediaStore store;
+    private MediaGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        store = new FileSystemMediaStore(dir.toString());
+        when(blobService.incomingLocation()).thenReturn(Files.createDirectories(dir.resolve(".incoming")));
+        when(lease.renew()).thenReturn(true);
+        collector = new MediaGarbageCollector(mediaRepository, blobRepository, blobService, store,
+            mock(JobLeases.class), meterRegistry, true, 10, GRACE_MS, GRACE_MS, 0);
+    }
+
+    private static MediaBlob tombstone(String hash) {
+        MediaBlob blob = new MediaBlob(hash, StorageLayout.shardedPath(hash), 42, 0, Instant.now());
+        blob.setReleasedAt(Instant.now().minus(Duration.ofDays(1)));
+        return blob;
+    }
+
+    private Path storeFile(String key, Duration age) throws Exception {
+        store.put(key, new ByteArrayInputStream(key.getBytes()));
+        Path path = dir.resolve(key);
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(age)));
+        return path;
+    }
+
+    private double deletedFiles(String reason) {
+        return meterRegistry.counter("media.gc.deleted.files", "reason", reason).count();
+    }
+
+    @Test
+    void testPurgeTombstones_ShouldOnlyPurgeBlobsReleasedBeforeGracePeriod() throws Exception {
+        when(blobRepository.findByRefCountLessThanEqualAndReleasedAtBefore(eq(0L), any(), any()))
+            .thenReturn(List.of(tombstone("aaaa1111")));
+        when(blobService.purge(eq("aaaa1111"), any())).thenReturn(42L);
+
+        Instant before = Instant.now();
+        assertEquals(42, collector.purgeTombstones(new Throttle(0), lease));
+        Instant after = Instant.now();
+
+        ArgumentCaptor<Instant> queried = ArgumentCaptor.forClass(Instant.class);
+        verify(blobRepository).findByRefCountLessThanEqualAndReleasedAtBefore(eq(0L), queried.capture(), any());
+        Instant cutoff = queried.getValue();
+        assertFalse(cutoff.isBefore(before.minusMillis(GRACE_MS)));
+        assertFalse(cutoff.isAfter(after.minusMillis(GRACE_MS)));
+        // The purge itself re-checks the same cutoff, in case the blob was revived and released again
+        verify(blobService).purge("aaaa1111", cutoff);
+    }
+
+    @Test
+    void testPurgeTombstones_BlobPurgedConcurrently_ShouldSkipIt() throws Exception {
+        when(blobRepository.findByRefCountLessThanEqualAndReleasedAtBefore(eq(0L), any(), any()))
+            .thenReturn(List.of(tombstone("aaaa1111"), tombstone("bbbb2222")));
+        // Claimed by another purge, or revived, after the batch was read
+        when(blobService.purge(eq("aaaa1111"), any())).thenReturn(-1L);
+        when(blobService.purge(eq("bbbb2222"), any())).thenReturn(42L);
+
+        assertEquals(42, collector.purgeTombstones(new Throttle(0), lease));
+
+        assertEquals(1, deletedFiles("tombstone"));
+    }
+
+    @Test
+    void testSweepOrphans_ShouldDeleteOnlyOldUnreferencedMedia() throws Exception {
+        Path orphan = storeFile("ab/cd/abcd-orphan", Duration.ofHours(2));
+        Path referenced = storeFile("ef/gh/efgh-kept", Duration.ofHours(2));
+        Path fresh = storeFile("ij/kl/ijkl-uploading", Duration.ZERO);
+        Path quarantined = storeFile(".quarantine/abcd-1700000000000", Duration.ofHours(2));
+        when(mediaRepository.findByFilePathIn(anyCollection()))
+            .thenReturn(List.of(new Media("media-1", "ef/gh/efgh-kept", "product-1")));
+
+        long reclaimed = collector.sweepOrphans(new Throttle(0), lease);
+
+        assertFalse(Files.exists(orphan));
+        assertEquals("ab/cd/abcd-orphan".length(), reclaimed);
+        assertTrue(Files.exists(referenced));
+        assertTrue(Files.exists(fresh), "Files younger than the grace period may belong to uploads in flight");
+        assertTrue(Files.exists(quarantined), "Quarantined files are kept for inspection");
+        assertEquals(1, deletedFiles("orphan"));
+    }
+
+    @Test
+    void testSweepOrphans_ShouldKeepFileOfBlobNotYetRepointed() throws Exception {
+        // Moved into its shard by the storage migration, document still holding the flat path
+        Path moved = storeFile("cd/ef/cdef5678", Duration.ofHours(2));
+        MediaBlob blob = new MediaBlob("cdef5678", "cdef5678", 10, 1, Instant.now());
+        when(blobRepository.findByFilePathInOrIdIn(anyCollection(), anyCollection())).thenReturn(List.of(blob));
+
+        assertEquals(0, collector.sweepOrphans(new Throttle(0), lease));
+
+        assertTrue(Files.exists(moved));
+    }
+}
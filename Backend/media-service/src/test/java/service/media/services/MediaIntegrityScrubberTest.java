@@ -0,0 +1,116 @@
+package service.media.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.media.models.MediaBlob;
+import service.media.mongo_repo.MediaBlobRepository;
+import service.media.store.FileSystemMediaStore;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AUDIT TEST: Media Integrity Scrubber Tests
+ * Tests for verifying, quarantining and flagging missing blobs
+ */
+class MediaIntegrityScrubberTest {
+
+    private static final byte[] CONTENT = "scrubbed image bytes".getBytes();
+    private static final String HASH = HexFormat.of().formatHex(MediaBlobService.sha256().digest(CONTENT));
+
+    @TempDir
+    Path dir;
+
+    private final MediaBlobRepository blobRepository = mock(MediaBlobRepository.class);
+    private FileSystemMediaStore store;
+    private MediaIntegrityScrubber scrubber;
+    private MediaBlob blob;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileSystemMediaStore(dir.toString());
+        MediaBlobService blobService = new MediaBlobService(blobRepository, store, dir.toString());
+        scrubber = new MediaIntegrityScrubber(blobRepository, blobService, store,
+            new HotMediaCache(256 * 1024, 64 * 1024, 2), mock(JobLeases.class), new SimpleMeterRegistry(),
+            true, 10, 0);
+        blob = new MediaBlob(HASH, blobService.blobKey(HASH), CONTENT.length, 1, Instant.now());
+        when(blobRepository.findById(HASH)).thenReturn(Optional.of(blob));
+    }
+
+    private void storeBlob(byte[] content) throws Exception {
+        store.put(blob.getFilePath(), new ByteArrayInputStream(content));
+    }
+
+    private List<Path> quarantined() throws Exception {
+        Path quarantine = dir.resolve(".quarantine");
+        if (!Files.exists(quarantine)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(quarantine)) {
+            return files.toList();
+        }
+    }
+
+    @Test
+    void testVerify_MatchingFile_ShouldLeaveBlobAlone() throws Exception {
+        storeBlob(CONTENT);
+
+        assertTrue(scrubber.verify(blob, new Throttle(0)));
+
+        assertTrue(store.exists(blob.getFilePath()));
+        assertTrue(quarantined().isEmpty());
+        verify(blobRepository, never()).findAndSetCorruptAtById(anyString(), any());
+    }
+
+    @Test
+    void testVerify_MismatchingFile_ShouldQuarantineAndMarkCorrupt() throws Exception {
+        storeBlob("bit-rotted image bytes".getBytes());
+
+        assertFalse(scrubber.verify(blob, new Throttle(0)));
+
+        assertFalse(store.exists(blob.getFilePath()));
+        List<Path> quarantined = quarantined();
+        assertEquals(1, quarantined.size());
+        assertTrue(quarantined.get(0).getFileName().toString().startsWith(HASH + "-"));
+        verify(blobRepository).findAndSetCorruptAtById(eq(HASH), any(Instant.class));
+    }
+
+    @Test
+    void testVerify_MissingFile_ShouldMarkCorrupt() throws Exception {
+        assertFalse(scrubber.verify(blob, new Throttle(0)));
+
+        verify(blobRepository).findAndSetCorruptAtById(eq(HASH), any(Instant.class));
+    }
+
+    @Test
+    void testVerify_MissingFileOfPurgedBlob_ShouldNotMarkCorrupt() throws Exception {
+        // Purged between reading the batch and verifying it
+        when(blobRepository.findById(HASH)).thenReturn(Optional.empty());
+
+        assertTrue(scrubber.verify(blob, new Throttle(0)));
+
+        verify(blobRepository, never()).findAndSetCorruptAtById(anyString(), any());
+    }
+
+    @Test
+    void testVerify_AlreadyCorrupt_ShouldSkipWithoutReading() throws Exception {
+        blob.setCorruptAt(Instant.now());
+
+        assertTrue(scrubber.verify(blob, new Throttle(0)));
+
+        verify(blobRepository, never()).findById(anyString());
+        verify(blobRepository, never()).findAndSetCorruptAtById(anyString(), any());
+    }
+}
@@ -0,0 +1,72 @@
+package service.media.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import service.media.models.Media;
+import service.media.mongo_repo.MediaRepository;
+import service.media.store.MediaStore;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AUDIT TEST: Media Variant Service Tests
+ * Tests for the pixel limit applied before an original is decoded
+ */
+class MediaVariantServiceTest {
+
+    private final MediaRepository mediaRepository = mock(MediaRepository.class);
+    private final MediaStore store = mock(MediaStore.class);
+
+    private MediaVariantService service(long maxPixels) {
+        return new MediaVariantService(mediaRepository, mock(MediaBlobService.class), store,
+            mock(ExecutorService.class), true, maxPixels);
+    }
+
+    private Media storedPng(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        when(store.get("original.png")).thenReturn(new ByteArrayResource(out.toByteArray()));
+
+        Media media = new Media("media-1", "original.png", "product-1");
+        media.setContentType("image/png");
+        return media;
+    }
+
+    @Test
+    void testGenerateVariants_OverPixelLimit_ShouldSkipVariantsAndPlaceholder() throws Exception {
+        Media media = storedPng(100, 100);
+
+        service(100 * 100 - 1).generateVariants(media);
+
+        verify(mediaRepository, never()).findAndSetRenditionsById(anyString(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGenerateVariants_WithinPixelLimit_ShouldRecordPlaceholderAndDimensions() throws Exception {
+        Media media = storedPng(100, 50);
+        when(mediaRepository.findAndSetRenditionsById(anyString(), any(), any(), anyInt(), anyInt())).thenReturn(1L);
+
+        service(100 * 50).generateVariants(media);
+
+        // Smaller than every variant size, so only the placeholder is rendered
+        verify(mediaRepository).findAndSetRenditionsById(eq("media-1"), eq(Map.of()),
+            argThat(placeholder -> placeholder.startsWith("data:image/png;base64,")), eq(100), eq(50));
+    }
+
+    @Test
+    void testGenerateVariants_NotAnImage_ShouldRecordNothing() {
+        when(store.get("original.png")).thenReturn(new ByteArrayResource("not an image".getBytes()));
+
+        service(Long.MAX_VALUE).generateVariants(new Media("media-1", "original.png", "product-1"));
+
+        verifyNoInteractions(mediaRepository);
+    }
+}
@@ -0,0 +1,49 @@
+package service.media.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.media.store.FileSystemMediaStore;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: Storage Layout Tests
+ * Tests for shard paths and locating files moved by the storage migration
+ */
+class StorageLayoutTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testShardedPath_ShouldUseLowerCasedPrefixDirectories() {
+        assertEquals("ab/cd/ABCDEF.png", StorageLayout.shardedPath("ABCDEF.png"));
+        assertEquals("abc", StorageLayout.shardedPath("abc"));
+    }
+
+    @Test
+    void testIsFlat_ShouldDetectDirectoryPart() {
+        assertTrue(StorageLayout.isFlat("abcdef"));
+        assertFalse(StorageLayout.isFlat("ab/cd/abcdef"));
+    }
+
+    @Test
+    void testLocate_FileMovedBeforeDocument_ShouldFindShard() throws Exception {
+        FileSystemMediaStore store = new FileSystemMediaStore(dir.toString());
+        store.put("ab/cd/abcdef", new ByteArrayInputStream("moved".getBytes()));
+
+        assertEquals("ab/cd/abcdef", StorageLayout.locate(store, "abcdef"));
+    }
+
+    @Test
+    void testLocate_FileNotMovedYet_ShouldKeepFlatPath() throws Exception {
+        FileSystemMediaStore store = new FileSystemMediaStore(dir.toString());
+        store.put("abcdef", new ByteArrayInputStream("flat".getBytes()));
+
+        assertEquals("abcdef", StorageLayout.locate(store, "abcdef"));
+        assertEquals("ab/cd/abcdef", StorageLayout.locate(store, "ab/cd/abcdef"));
+    }
+}
@@ -0,0 +1,102 @@
+package service.media.store;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.media.exception.StorageException;
+import service.media.store.MediaStore.StoredObject;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: File System Media Store Tests
+ * Tests for listing and moving stored media on local disk
+ */
+class FileSystemMediaStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private FileSystemMediaStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FileSystemMediaStore(dir.toString());
+    }
+
+    private void put(String key, String content) throws IOException {
+        store.put(key, new ByteArrayInputStream(content.getBytes()));
+    }
+
+    private Map<String, Long> listed() throws IOException {
+        try (Stream<StoredObject> objects = store.list()) {
+            return objects.collect(Collectors.toMap(StoredObject::key, StoredObject::size));
+        }
+    }
+
+    @Test
+    void testList_ShouldReturnFilesWithSlashSeparatedKeys() throws Exception {
+        put("ab/cd/abcdef", "sharded");
+        put("legacy.png", "flat");
+
+        assertEquals(Map.of("ab/cd/abcdef", 7L, "legacy.png", 4L), listed());
+    }
+
+    @Test
+    void testList_ShouldSkipDotDirectories() throws Exception {
+        put("ab/cd/abcdef", "sharded");
+        put(".quarantine/abcdef-1700000000000", "corrupt");
+        Files.createDirectories(dir.resolve(".incoming"));
+        Files.writeString(dir.resolve(".incoming/upload.part"), "partial");
+
+        assertEquals(Map.of("ab/cd/abcdef", 7L), listed());
+    }
+
+    @Test
+    void testPut_ShouldLeaveNoTemporaryFiles() throws Exception {
+        put("ab/cd/abcdef", "first");
+        put("ab/cd/abcdef", "second");
+
+        assertEquals(Map.of("ab/cd/abcdef", 6L), listed());
+        try (Stream<Path> files = Files.list(dir.resolve("ab/cd"))) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testMove_ShouldCreateTargetDirectories() throws Exception {
+        put("abcdef", "flat");
+
+        store.move("abcdef", "ab/cd/abcdef");
+
+        assertFalse(store.exists("abcdef"));
+        assertEquals("flat", Files.readString(dir.resolve("ab/cd/abcdef")));
+    }
+
+    @Test
+    void testMove_Repeated_ShouldLeaveMovedFileAlone() throws Exception {
+        put("abcdef", "flat");
+        store.move("abcdef", "ab/cd/abcdef");
+
+        // A migration resumed after a crash moves the same file again
+        store.move("abcdef", "ab/cd/abcdef");
+
+        assertEquals("flat", Files.readString(dir.resolve("ab/cd/abcdef")));
+    }
+
+    @Test
+    void testMove_OutsideRoot_ShouldBeRejected() throws Exception {
+        put("abcdef", "flat");
+
+        assertThrows(StorageException.class, () -> store.move("abcdef", "../escaped"));
+        assertTrue(store.exists("abcdef"));
+    }
+}
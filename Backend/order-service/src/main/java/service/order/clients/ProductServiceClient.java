@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -15,6 +16,7 @@ import service.order.exceptions.OrderServiceException;
 import java.util.Map;
 
 @Service
+@Profile("!reactive")
 public class ProductServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceClient.class);
@@ -0,0 +1,83 @@
+package service.order.clients;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import service.order.exceptions.OrderServiceException;
+import service.order.exceptions.ProductNotFoundException;
+
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link ProductServiceClient}, used by the "reactive" profile.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveProductServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveProductServiceClient.class);
+    private static final ParameterizedTypeReference<Map<String, Object>> PRODUCT = new ParameterizedTypeReference<>() {};
+
+    private final WebClient webClient;
+
+    @Autowired
+    public ReactiveProductServiceClient(WebClient.Builder webClientBuilder,
+                                        @Value("${product.service.url}") String productServiceUrl) {
+        this.webClient = webClientBuilder.baseUrl(productServiceUrl).build();
+    }
+
+    /**
+     * The product as product-service returns it; fails with {@link ProductNotFoundException}
+     * if it does not exist.
+     */
+    public Mono<Map<String, Object>> getProduct(String productId) {
+        return webClient.get()
+                .uri("/{id}", productId)
+                .retrieve()
+                .onStatus(status -> status.value() == HttpStatus.NOT_FOUND.value(),
+                    response -> Mono.error(new ProductNotFoundException(productId)))
+                .bodyToMono(PRODUCT)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException(productId)));
+    }
+
+    /**
+     * Emits the current available stock quantity for the given product.
+     */
+    public Mono<Integer> getStock(String productId) {
+        return webClient.get()
+                .uri("/{id}", productId)
+                .retrieve()
+                .bodyToMono(PRODUCT)
+                .switchIfEmpty(Mono.error(() ->
+                    new OrderServiceException("Could not retrieve product stock for: " + productId, null)))
+                .map(body -> ((Number) body.get("quantity")).intValue())
+                .onErrorMap(e -> !(e instanceof OrderServiceException),
+                    e -> new OrderServiceException("Failed to fetch stock for product " + productId, e));
+    }
+
+    /**
+     * Decrease stock when an order is placed (delta is negative).
+     * Restore stock when an order is cancelled before delivery (delta is positive).
+     */
+    public Mono<Void> adjustStock(String productId, int delta) {
+        return webClient.patch()
+                .uri("/internal/stock/{id}", productId)
+                .bodyValue(Map.of("delta", delta))
+                .retrieve()
+                .toBodilessEntity()
+                .doOnSuccess(response -> logger.info("Adjusted stock for product {}: delta={}", productId, delta))
+                .then()
+                // Log only — stock adjustment failure should not roll back an order transition
+                .onErrorResume(e -> {
+                    logger.error("Failed to adjust stock for product {}: {}", productId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
@@ -0,0 +1,77 @@
+package service.order.clients;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import service.order.exceptions.OrderServiceException;
+
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link UserServiceClient}, used by the "reactive" profile.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveUserServiceClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserServiceClient.class);
+
+    private final WebClient webClient;
+
+    @Autowired
+    public ReactiveUserServiceClient(WebClient.Builder webClientBuilder,
+                                     @Value("${user.service.url:http://localhost:8081}") String userServiceUrl) {
+        this.webClient = webClientBuilder.baseUrl(userServiceUrl).build();
+    }
+
+    // Fetch a user's current balance from user-service
+    public Mono<Double> getBalance(String userId) {
+        return webClient.get()
+                .uri("/profile/internal/balance/{id}", userId)
+                .retrieve()
+                .bodyToMono(Double.class)
+                .defaultIfEmpty(0.0)
+                .onErrorMap(e -> new OrderServiceException("Could not retrieve balance for user: " + userId, e));
+    }
+
+    // Adjust buyer's balance and moneySpent
+    public Mono<Void> deductFromBuyer(String buyerId, double amount) {
+        return updateWallet(buyerId, -amount, amount, 0);
+    }
+
+    // Refund buyer (cancel)
+    public Mono<Void> refundBuyer(String buyerId, double amount) {
+        return updateWallet(buyerId, amount, -amount, 0);
+    }
+
+    // Credit seller on delivery
+    public Mono<Void> creditSeller(String sellerId, double amount) {
+        return updateWallet(sellerId, amount, 0, amount);
+    }
+
+    private Mono<Void> updateWallet(String userId, double balanceDelta, double spentDelta, double receivedDelta) {
+        Map<String, Double> body = Map.of(
+            "balanceDelta", balanceDelta,
+            "spentDelta", spentDelta,
+            "receivedDelta", receivedDelta
+        );
+        return webClient.patch()
+                .uri("/profile/internal/wallet/{id}", userId)
+                .bodyValue(body)
+                .retrieve()
+                .toBodilessEntity()
+                .doOnSuccess(response -> logger.info("Updated wallet for user {}: balance={}, spent={}, received={}",
+                    userId, balanceDelta, spentDelta, receivedDelta))
+                .then()
+                // Log only — wallet update failure should not roll back a completed order transition
+                .onErrorResume(e -> {
+                    logger.error("Failed to update wallet for user {}: {}", userId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+}
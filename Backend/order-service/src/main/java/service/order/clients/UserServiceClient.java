@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
@@ -12,6 +13,7 @@ import service.order.exceptions.OrderServiceException;
 import java.util.Map;
 
 @Service
+@Profile("!reactive")
 public class UserServiceClient {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceClient.class);
@@ -32,6 +32,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(400).body(Map.of(ERROR_KEY, ex.getMessage()));
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.status(400).body(Map.of(ERROR_KEY, ex.getMessage()));
+    }
+
     @ExceptionHandler(OrderAccessDeniedException.class)
     public ResponseEntity<Map<String, String>> handleAccessDenied(OrderAccessDeniedException ex) {
         return ResponseEntity.status(403).body(Map.of(ERROR_KEY, ex.getMessage()));
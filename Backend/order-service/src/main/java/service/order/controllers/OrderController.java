@@ -1,24 +1,45 @@
 package service.order.controllers;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import service.order.dtos.OrderDtos;
+import service.order.services.ExportFormat;
+import service.order.services.OrderExportService;
 import service.order.services.OrderService;
-
+import service.order.services.SellerStatsService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/orders")
 public class OrderController {
 
     private final OrderService orderService;
+    private final SellerStatsService sellerStatsService;
+    private final OrderExportService exportService;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, SellerStatsService sellerStatsService,
+                           OrderExportService exportService) {
         this.orderService = orderService;
+        this.sellerStatsService = sellerStatsService;
+        this.exportService = exportService;
     }
 
     // POST /api/orders — add to cart
@@ -35,16 +56,54 @@ public class OrderController {
         return orderService.getCart(auth.getName());
     }
 
-    // GET /api/orders/my-orders — buyer's order history (non-ADDED)
+    // GET /api/orders/my-orders — buyer's order history (non-ADDED), newest first.
+    // Pass limit to page it, and the last id received as before to get the next page
     @GetMapping("/my-orders")
-    public List<OrderDtos.OrderResponse> getMyOrders(Authentication auth) {
-        return orderService.getMyOrders(auth.getName());
+    public List<OrderDtos.OrderResponse> getMyOrders(
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return orderService.getMyOrders(auth.getName(), before, limit);
     }
 
-    // GET /api/orders/seller-orders — seller's incoming orders
+    // GET /api/orders/seller-orders — seller's incoming orders, newest first, paged like my-orders
     @GetMapping("/seller-orders")
-    public List<OrderDtos.OrderResponse> getSellerOrders(Authentication auth) {
-        return orderService.getSellerOrders(auth.getName());
+    public List<OrderDtos.OrderResponse> getSellerOrders(
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return orderService.getSellerOrders(auth.getName(), before, limit);
+    }
+
+    // GET /api/orders/seller-orders/export?format=ndjson|csv&from=&to= — seller's orders created
+    // between the given days (yyyy-MM-dd, UTC, inclusive), oldest first. Written straight from the
+    // cursor on this request's thread, so nothing is collected in memory
+    @GetMapping("/seller-orders/export")
+    public void exportSellerOrders(
+            @RequestParam String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication auth,
+            HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.fromKey(format);
+        try (Stream<String> lines = exportService.exportSellerOrders(auth.getName(), from, to, exportFormat)) {
+            response.setContentType(exportFormat.contentType());
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "attachment; filename=\"orders." + exportFormat.key() + "\"");
+            Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+            Iterator<String> it = lines.iterator();
+            while (it.hasNext()) {
+                out.write(it.next());
+            }
+            out.flush();
+        }
+    }
+
+    // GET /api/orders/seller-stats — seller's dashboard totals, kept up to date as orders change
+    @GetMapping("/seller-stats")
+    public OrderDtos.SellerStatsResponse getSellerStats(Authentication auth) {
+        return sellerStatsService.getStats(auth.getName());
     }
 
     // PATCH /api/orders/{id}/quantity — update cart item quantity
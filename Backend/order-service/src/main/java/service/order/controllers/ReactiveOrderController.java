@@ -0,0 +1,160 @@
+package service.order.controllers;
+
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import service.order.dtos.OrderDtos;
+import service.order.services.ExportFormat;
+import service.order.services.ReactiveOrderExportService;
+import service.order.services.ReactiveOrderService;
+import service.order.services.ReactiveSellerStatsService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * The {@link OrderController} API served by {@link ReactiveOrderService} under the "reactive" profile.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/orders")
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService orderService;
+    private final ReactiveSellerStatsService sellerStatsService;
+    private final ReactiveOrderExportService exportService;
+
+    @Autowired
+    public ReactiveOrderController(ReactiveOrderService orderService, ReactiveSellerStatsService sellerStatsService,
+                                   ReactiveOrderExportService exportService) {
+        this.orderService = orderService;
+        this.sellerStatsService = sellerStatsService;
+        this.exportService = exportService;
+    }
+
+    // POST /api/orders — add to cart
+    @PostMapping
+    public Mono<ResponseEntity<OrderDtos.OrderResponse>> addToCart(
+            @Valid @RequestBody OrderDtos.AddToCartRequest req,
+            Authentication auth) {
+        return orderService.addToCart(auth.getName(), req)
+                .map(order -> ResponseEntity.status(201).body(order));
+    }
+
+    // GET /api/orders/cart — buyer's cart (ADDED)
+    @GetMapping("/cart")
+    public Flux<OrderDtos.OrderResponse> getCart(Authentication auth) {
+        return orderService.getCart(auth.getName());
+    }
+
+    // GET /api/orders/my-orders — buyer's order history (non-ADDED), newest first.
+    // Pass limit to page it, and the last id received as before to get the next page
+    @GetMapping("/my-orders")
+    public Flux<OrderDtos.OrderResponse> getMyOrders(
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return orderService.getMyOrders(auth.getName(), before, limit);
+    }
+
+    // GET /api/orders/seller-orders — seller's incoming orders, newest first, paged like my-orders
+    @GetMapping("/seller-orders")
+    public Flux<OrderDtos.OrderResponse> getSellerOrders(
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer limit,
+            Authentication auth) {
+        return orderService.getSellerOrders(auth.getName(), before, limit);
+    }
+
+    // GET /api/orders/seller-orders/export?format=ndjson|csv&from=&to= — seller's orders created
+    // between the given days (yyyy-MM-dd, UTC, inclusive), oldest first, streamed as the cursor is read
+    @GetMapping("/seller-orders/export")
+    public ResponseEntity<Flux<DataBuffer>> exportSellerOrders(
+            @RequestParam String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication auth) {
+        ExportFormat exportFormat = ExportFormat.fromKey(format);
+        Flux<DataBuffer> body = exportService.exportSellerOrders(auth.getName(), from, to, exportFormat)
+                .map(line -> DefaultDataBufferFactory.sharedInstance.wrap(line.getBytes(StandardCharsets.UTF_8)));
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.contentType()), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + exportFormat.key() + "\"")
+                .body(body);
+    }
+
+    // GET /api/orders/seller-stats — seller's dashboard totals, kept up to date as orders change
+    @GetMapping("/seller-stats")
+    public Mono<OrderDtos.SellerStatsResponse> getSellerStats(Authentication auth) {
+        return sellerStatsService.getStats(auth.getName());
+    }
+
+    // PATCH /api/orders/{id}/quantity — update cart item quantity
+    @PatchMapping("/{id}/quantity")
+    public Mono<ResponseEntity<OrderDtos.OrderResponse>> updateQuantity(
+            @PathVariable String id,
+            @Valid @RequestBody OrderDtos.UpdateQuantityRequest req,
+            Authentication auth) {
+        return orderService.updateQuantity(id, auth.getName(), req.quantity()).map(ResponseEntity::ok);
+    }
+
+    // PATCH /api/orders/{id}/place — buyer pays (ADDED -> STARTED)
+    @PatchMapping("/{id}/place")
+    public Mono<ResponseEntity<OrderDtos.OrderResponse>> placeOrder(
+            @PathVariable String id,
+            Authentication auth) {
+        return orderService.placeOrder(id, auth.getName()).map(ResponseEntity::ok);
+    }
+
+    // PATCH /api/orders/{id}/ongoing — seller confirms (STARTED -> ONGOING)
+    @PatchMapping("/{id}/ongoing")
+    public Mono<ResponseEntity<OrderDtos.OrderResponse>> markOngoing(
+            @PathVariable String id,
+            Authentication auth) {
+        return orderService.markOngoing(id, auth.getName()).map(ResponseEntity::ok);
+    }
+
+    // PATCH /api/orders/{id}/delivered — buyer confirms delivery (ONGOING -> DELIVERED)
+    @PatchMapping("/{id}/delivered")
+    public Mono<ResponseEntity<OrderDtos.OrderResponse>> markDelivered(
+            @PathVariable String id,
+            Authentication auth) {
+        return orderService.markDelivered(id, auth.getName()).map(ResponseEntity::ok);
+    }
+
+    // PATCH /api/orders/{id}/cancel — cancel by buyer or seller
+    @PatchMapping("/{id}/cancel")
+    public Mono<ResponseEntity<OrderDtos.OrderResponse>> cancelOrder(
+            @PathVariable String id,
+            Authentication auth) {
+        return orderService.cancelOrder(id, auth.getName()).map(ResponseEntity::ok);
+    }
+
+    // DELETE /api/orders/{id} — remove from cart (ADDED only)
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteOrder(
+            @PathVariable String id,
+            Authentication auth) {
+        return orderService.deleteOrder(id, auth.getName())
+                .then(Mono.fromSupplier(() -> ResponseEntity.noContent().<Void>build()));
+    }
+
+    // PATCH /api/orders/{id}/reorder — reorder with new quantity
+    @PatchMapping("/{id}/reorder")
+    public Mono<ResponseEntity<OrderDtos.OrderResponse>> reorder(
+            @PathVariable String id,
+            @Valid @RequestBody OrderDtos.UpdateQuantityRequest req,
+            Authentication auth) {
+        return orderService.reorder(id, auth.getName(), req.quantity()).map(ResponseEntity::ok);
+    }
+}
@@ -4,6 +4,9 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.List;
+import java.util.Map;
+
 public class OrderDtos {
 
     // Buyer sends this to add a product to cart
@@ -36,5 +39,27 @@ public class OrderDtos {
         String createdAt,
         String updatedAt
     ) {}
-}
 
+    // Seller dashboard totals, read from the seller's statistics document
+    public record SellerStatsResponse(
+        Map<String, Long> ordersByStatus,
+        double revenueDelivered,
+        double revenuePending,
+        long unitsDelivered,
+        List<DailySalesResponse> last30Days, // oldest first, one entry per day including empty ones
+        List<ProductSalesResponse> bestSellers // by delivered revenue, at most five
+    ) {}
+
+    public record DailySalesResponse(
+        String date,
+        long orders,
+        double revenue
+    ) {}
+
+    public record ProductSalesResponse(
+        String productId,
+        String name,
+        long units,
+        double revenue
+    ) {}
+}
@@ -3,15 +3,19 @@ package service.order.models;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
 
 @Document(collection = "orders")
+// History is paged newest-first on the time-ordered id, so no createdAt index is needed
+@CompoundIndex(name = "buyer_history", def = "{'buyerId': 1, '_id': -1}")
+@CompoundIndex(name = "seller_history", def = "{'sellerId': 1, '_id': -1}")
 public class Order {
 
     @Id
-    private String orderId; // Unique identifier for the order
+    private String orderId; // Time-ordered ULID assigned at creation; older orders were migrated from ObjectIds
 
     private String buyerId; // ID of the user who placed the order
 
@@ -0,0 +1,139 @@
+package service.order.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Running totals for one seller's orders, kept current with $inc on every status change so the
+ * dashboard is a single read by seller id.
+ */
+@Document(collection = "seller_stats")
+public class SellerStats {
+
+    @Id
+    private String sellerId;
+
+    private Map<String, Long> counts = new HashMap<>(); // orders per status name, as they are now
+
+    private double revenueDelivered; // total of every delivery, kept when an order is later reordered
+
+    private double revenuePending; // paid but not yet delivered or cancelled
+
+    private long unitsDelivered;
+
+    private Map<String, DailySales> daily = new HashMap<>(); // deliveries per UTC day (yyyy-MM-dd)
+
+    private Map<String, ProductSales> products = new HashMap<>(); // deliveries per product id
+
+    public static class DailySales {
+        private long orders;
+        private double revenue;
+
+        public long getOrders() {
+            return orders;
+        }
+
+        public void setOrders(long orders) {
+            this.orders = orders;
+        }
+
+        public double getRevenue() {
+            return revenue;
+        }
+
+        public void setRevenue(double revenue) {
+            this.revenue = revenue;
+        }
+    }
+
+    public static class ProductSales {
+        private String name;
+        private long units;
+        private double revenue;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getUnits() {
+            return units;
+        }
+
+        public void setUnits(long units) {
+            this.units = units;
+        }
+
+        public double getRevenue() {
+            return revenue;
+        }
+
+        public void setRevenue(double revenue) {
+            this.revenue = revenue;
+        }
+    }
+
+    // Getters and setters
+
+    public String getSellerId() {
+        return sellerId;
+    }
+
+    public void setSellerId(String sellerId) {
+        this.sellerId = sellerId;
+    }
+
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    public void setCounts(Map<String, Long> counts) {
+        this.counts = counts;
+    }
+
+    public double getRevenueDelivered() {
+        return revenueDelivered;
+    }
+
+    public void setRevenueDelivered(double revenueDelivered) {
+        this.revenueDelivered = revenueDelivered;
+    }
+
+    public double getRevenuePending() {
+        return revenuePending;
+    }
+
+    public void setRevenuePending(double revenuePending) {
+        this.revenuePending = revenuePending;
+    }
+
+    public long getUnitsDelivered() {
+        return unitsDelivered;
+    }
+
+    public void setUnitsDelivered(long unitsDelivered) {
+        this.unitsDelivered = unitsDelivered;
+    }
+
+    public Map<String, DailySales> getDaily() {
+        return daily;
+    }
+
+    public void setDaily(Map<String, DailySales> daily) {
+        this.daily = daily;
+    }
+
+    public Map<String, ProductSales> getProducts() {
+        return products;
+    }
+
+    public void setProducts(Map<String, ProductSales> products) {
+        this.products = products;
+    }
+}
@@ -0,0 +1,67 @@
+package service.order.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of a one-off pass run at startup, shared by every instance of the service so the pass
+ * runs once, by one instance at a time, and resumes where it stopped.
+ */
+@Document(collection = "startup_tasks")
+public class StartupTask {
+
+    @Id
+    private String name;
+
+    private Instant cutoff; // when the first run started; changes from then on are handled live
+
+    private String resumeAfter; // last id processed, null before the first batch
+
+    private Instant claimedUntil; // the running instance's lease; another may take over once it passes
+
+    private Instant completedAt;
+
+    // Getters and setters
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getCutoff() {
+        return cutoff;
+    }
+
+    public void setCutoff(Instant cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    public String getResumeAfter() {
+        return resumeAfter;
+    }
+
+    public void setResumeAfter(String resumeAfter) {
+        this.resumeAfter = resumeAfter;
+    }
+
+    public Instant getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Instant claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+}
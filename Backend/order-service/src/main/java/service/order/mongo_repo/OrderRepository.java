@@ -1,21 +1,47 @@
 package service.order.mongo_repo;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import service.order.models.Order;
 import service.order.models.Status;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrderRepository extends MongoRepository<Order, String>, OrderTransitions {
+    int EXPORT_BATCH_SIZE = 500;
 
-public interface OrderRepository extends MongoRepository<Order, String> {
     // Buyer: get all orders with a specific status (e.g. cart = ADDED)
     List<Order> findByBuyerIdAndStatus(String buyerId, Status status);
 
-    // Buyer: get all orders regardless of status
-    List<Order> findByBuyerId(String buyerId);
+    // Buyer: order history (everything but the cart) with ids below a cursor
+    List<Order> findByBuyerIdAndStatusNotAndOrderIdLessThan(String buyerId, Status status, String before, Pageable pageable);
 
-    // Seller: get all orders for their products
-    List<Order> findBySellerId(String sellerId);
+    // Seller: orders for their products with ids below a cursor
+    List<Order> findBySellerIdAndOrderIdLessThan(String sellerId, String before, Pageable pageable);
 
     // Seller: get orders by status
     List<Order> findBySellerIdAndStatus(String sellerId, Status status);
+
+    // Seller: export — a cursor over an id range, fetched a fixed batch at a time; close the stream after use
+    @Meta(cursorBatchSize = EXPORT_BATCH_SIZE)
+    Stream<Order> findBySellerIdAndOrderIdBetween(String sellerId, Range<String> ids, Sort sort);
+
+    // Buyer: remove a cart item, only while it is still in the given status; returns the removed order
+    Order deleteByOrderIdAndBuyerIdAndStatus(String orderId, String buyerId, Status status);
+
+    // Seller stats backfill: orders last changed before a cutoff, in id order after a keyset cursor
+    List<Order> findByOrderIdGreaterThanAndUpdatedAtLessThan(String after, Instant cutoff, Pageable pageable);
+
+    // Id migration: removes a legacy order only if nothing changed it since it was copied
+    long deleteByOrderIdAndStatusAndQuantityAndUpdatedAt(String orderId, Status status, int quantity, Instant updatedAt);
+
+    // Orders created before time-ordered ids, still keyed by an ObjectId
+    @Query("{ '_id': { '$type': 'objectId' } }")
+    List<Order> findWithObjectIds(Pageable pageable);
 }
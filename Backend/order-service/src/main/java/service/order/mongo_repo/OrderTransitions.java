@@ -0,0 +1,44 @@
+package service.order.mongo_repo;
+
+import service.order.models.Order;
+import service.order.models.Status;
+
+import java.util.Set;
+
+/**
+ * Status changes applied as one conditional findAndModify, so the ownership and status checks and
+ * the write cannot be interleaved with a concurrent transition of the same order.
+ */
+public interface OrderTransitions {
+
+    /**
+     * Moves the order to {@code to} if {@code userId} is its {@code party} and its status is one of
+     * {@code from}. Returns the updated order and the status it left, or null when nothing matched.
+     */
+    Transition findAndTransition(String orderId, Party party, String userId, Set<Status> from, Status to);
+
+    /**
+     * Moves the buyer's cart order to STARTED if its quantity and total are still the ones the
+     * balance and stock were checked against. Returns the updated order and the status it left, or
+     * null when nothing matched.
+     */
+    Transition findAndPlace(String orderId, String buyerId, int quantity, double totalPrice);
+
+    /**
+     * Puts the buyer's order back in the cart with a new quantity and total, if its status is one
+     * of {@code from}. Returns the updated order and the status it left, or null when nothing matched.
+     */
+    Transition findAndReprice(String orderId, String buyerId, Set<Status> from, int quantity, double totalPrice);
+
+    // Who may make a transition
+    enum Party {
+        BUYER,
+        SELLER,
+        BUYER_OR_SELLER
+    }
+
+    /**
+     * An applied transition: the order as it is now, and the status it was in before.
+     */
+    record Transition(Order order, Status from) {}
+}
@@ -0,0 +1,44 @@
+package service.order.mongo_repo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import service.order.models.Order;
+import service.order.models.Status;
+
+import java.time.Instant;
+import java.util.Set;
+
+// Picked up by Spring Data as the implementation of the OrderTransitions fragment of OrderRepository
+class OrderTransitionsImpl implements OrderTransitions {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    OrderTransitionsImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Transition findAndTransition(String orderId, Party party, String userId, Set<Status> from, Status to) {
+        Instant now = Instant.now();
+        Order previous = mongoTemplate.findAndModify(TransitionQueries.match(orderId, party, userId, from),
+            TransitionQueries.moveTo(to, now), TransitionQueries.RETURN_PREVIOUS, Order.class);
+        return previous == null ? null : TransitionQueries.applied(previous, to, now);
+    }
+
+    @Override
+    public Transition findAndPlace(String orderId, String buyerId, int quantity, double totalPrice) {
+        Instant now = Instant.now();
+        Order previous = mongoTemplate.findAndModify(TransitionQueries.matchUnchanged(orderId, buyerId, quantity, totalPrice),
+            TransitionQueries.moveTo(Status.STARTED, now), TransitionQueries.RETURN_PREVIOUS, Order.class);
+        return previous == null ? null : TransitionQueries.applied(previous, Status.STARTED, now);
+    }
+
+    @Override
+    public Transition findAndReprice(String orderId, String buyerId, Set<Status> from, int quantity, double totalPrice) {
+        Instant now = Instant.now();
+        Order previous = mongoTemplate.findAndModify(TransitionQueries.match(orderId, Party.BUYER, buyerId, from),
+            TransitionQueries.reprice(quantity, totalPrice, now), TransitionQueries.RETURN_PREVIOUS, Order.class);
+        return previous == null ? null : TransitionQueries.repriced(previous, quantity, totalPrice, now);
+    }
+}
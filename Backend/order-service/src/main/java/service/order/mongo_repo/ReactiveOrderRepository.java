@@ -0,0 +1,30 @@
+package service.order.mongo_repo;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import service.order.models.Order;
+import service.order.models.Status;
+
+// Reactive counterpart of OrderRepository, used by the "reactive" profile
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<Order, String>, ReactiveOrderTransitions {
+    // Buyer: get all orders with a specific status (e.g. cart = ADDED)
+    Flux<Order> findByBuyerIdAndStatus(String buyerId, Status status);
+
+    // Buyer: order history (everything but the cart) with ids below a cursor
+    Flux<Order> findByBuyerIdAndStatusNotAndOrderIdLessThan(String buyerId, Status status, String before, Pageable pageable);
+
+    // Seller: orders for their products with ids below a cursor
+    Flux<Order> findBySellerIdAndOrderIdLessThan(String sellerId, String before, Pageable pageable);
+
+    // Seller: export — a cursor over an id range, fetched a fixed batch at a time
+    @Meta(cursorBatchSize = OrderRepository.EXPORT_BATCH_SIZE)
+    Flux<Order> findBySellerIdAndOrderIdBetween(String sellerId, Range<String> ids, Sort sort);
+
+    // Buyer: remove a cart item, only while it is still in the given status; returns the removed order
+    Mono<Order> deleteByOrderIdAndBuyerIdAndStatus(String orderId, String buyerId, Status status);
+}
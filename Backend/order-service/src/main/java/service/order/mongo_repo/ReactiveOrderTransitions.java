@@ -0,0 +1,33 @@
+package service.order.mongo_repo;
+
+import reactor.core.publisher.Mono;
+import service.order.models.Status;
+import service.order.mongo_repo.OrderTransitions.Party;
+import service.order.mongo_repo.OrderTransitions.Transition;
+
+import java.util.Set;
+
+/**
+ * Reactive form of {@link OrderTransitions}.
+ */
+public interface ReactiveOrderTransitions {
+
+    /**
+     * Moves the order to {@code to} if {@code userId} is its {@code party} and its status is one of
+     * {@code from}. Emits the updated order and the status it left, or completes empty when nothing matched.
+     */
+    Mono<Transition> findAndTransition(String orderId, Party party, String userId, Set<Status> from, Status to);
+
+    /**
+     * Moves the buyer's cart order to STARTED if its quantity and total are still the ones the
+     * balance and stock were checked against. Emits the updated order and the status it left, or
+     * completes empty when nothing matched.
+     */
+    Mono<Transition> findAndPlace(String orderId, String buyerId, int quantity, double totalPrice);
+
+    /**
+     * Puts the buyer's order back in the cart with a new quantity and total, if its status is one
+     * of {@code from}. Emits the updated order and the status it left, or completes empty when nothing matched.
+     */
+    Mono<Transition> findAndReprice(String orderId, String buyerId, Set<Status> from, int quantity, double totalPrice);
+}
@@ -0,0 +1,55 @@
+package service.order.mongo_repo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import service.order.models.Order;
+import service.order.models.Status;
+import service.order.mongo_repo.OrderTransitions.Party;
+import service.order.mongo_repo.OrderTransitions.Transition;
+
+import java.time.Instant;
+import java.util.Set;
+
+// Picked up by Spring Data as the implementation of the ReactiveOrderTransitions fragment
+class ReactiveOrderTransitionsImpl implements ReactiveOrderTransitions {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    ReactiveOrderTransitionsImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Deferred so updatedAt is taken when the update is sent, not when the pipeline is built
+
+    @Override
+    public Mono<Transition> findAndTransition(String orderId, Party party, String userId, Set<Status> from, Status to) {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            return mongoTemplate.findAndModify(TransitionQueries.match(orderId, party, userId, from),
+                    TransitionQueries.moveTo(to, now), TransitionQueries.RETURN_PREVIOUS, Order.class)
+                .map(previous -> TransitionQueries.applied(previous, to, now));
+        });
+    }
+
+    @Override
+    public Mono<Transition> findAndPlace(String orderId, String buyerId, int quantity, double totalPrice) {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            return mongoTemplate.findAndModify(TransitionQueries.matchUnchanged(orderId, buyerId, quantity, totalPrice),
+                    TransitionQueries.moveTo(Status.STARTED, now), TransitionQueries.RETURN_PREVIOUS, Order.class)
+                .map(previous -> TransitionQueries.applied(previous, Status.STARTED, now));
+        });
+    }
+
+    @Override
+    public Mono<Transition> findAndReprice(String orderId, String buyerId, Set<Status> from, int quantity, double totalPrice) {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            return mongoTemplate.findAndModify(TransitionQueries.match(orderId, Party.BUYER, buyerId, from),
+                    TransitionQueries.reprice(quantity, totalPrice, now), TransitionQueries.RETURN_PREVIOUS, Order.class)
+                .map(previous -> TransitionQueries.repriced(previous, quantity, totalPrice, now));
+        });
+    }
+}
@@ -0,0 +1,9 @@
+package service.order.mongo_repo;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import service.order.models.SellerStats;
+
+// Reactive counterpart of SellerStatsRepository, used by the "reactive" profile
+public interface ReactiveSellerStatsRepository
+        extends ReactiveMongoRepository<SellerStats, String>, ReactiveSellerStatsUpdates {
+}
@@ -0,0 +1,18 @@
+package service.order.mongo_repo;
+
+import reactor.core.publisher.Mono;
+import service.order.models.Order;
+import service.order.models.Status;
+
+/**
+ * Reactive form of {@link SellerStatsUpdates}.
+ */
+public interface ReactiveSellerStatsUpdates {
+
+    /**
+     * Applies one status change of {@code order} to its seller's statistics with a single upsert;
+     * a delivery then also drops the daily buckets that have fallen out of the window.
+     * {@code from} is null for a new order and {@code to} is null for a removed one.
+     */
+    Mono<Void> recordTransition(Order order, Status from, Status to);
+}
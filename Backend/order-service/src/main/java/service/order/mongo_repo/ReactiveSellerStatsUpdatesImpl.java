@@ -0,0 +1,42 @@
+package service.order.mongo_repo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.Status;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+// Picked up by Spring Data as the implementation of the ReactiveSellerStatsUpdates fragment
+class ReactiveSellerStatsUpdatesImpl implements ReactiveSellerStatsUpdates {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Autowired
+    ReactiveSellerStatsUpdatesImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Void> recordTransition(Order order, Status from, Status to) {
+        return Mono.defer(() -> {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            Update update = StatsIncrements.of(order, from, to, today);
+            if (update == null) {
+                return Mono.empty();
+            }
+            if (!StatsIncrements.addsDailySales(to)) {
+                return mongoTemplate.upsert(StatsIncrements.seller(order), update, SellerStats.class).then();
+            }
+            return mongoTemplate.findAndModify(StatsIncrements.sellerDaily(order), update,
+                    StatsIncrements.UPSERT_RETURN_NEW, SellerStats.class)
+                .mapNotNull(stats -> StatsIncrements.prune(stats, today))
+                .flatMap(prune -> mongoTemplate.updateFirst(StatsIncrements.seller(order), prune, SellerStats.class))
+                .then();
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package service.order.mongo_repo;
+
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.Status;
+
+/**
+ * Keeps {@link service.order.models.SellerStats} in step with order status changes.
+ */
+public interface SellerStatsUpdates {
+
+    /**
+     * Applies one status change of {@code order} to its seller's statistics with a single upsert;
+     * a delivery then also drops the daily buckets that have fallen out of the window.
+     * {@code from} is null for a new order and {@code to} is null for a removed one.
+     */
+    void recordTransition(Order order, Status from, Status to);
+
+    /**
+     * Adds {@code totals} to the seller's statistics with a single upsert, keeping whatever live
+     * updates have already recorded there.
+     */
+    void merge(SellerStats totals);
+}
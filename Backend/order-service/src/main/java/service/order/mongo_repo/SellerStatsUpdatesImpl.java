@@ -0,0 +1,49 @@
+package service.order.mongo_repo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.Status;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+// Picked up by Spring Data as the implementation of the SellerStatsUpdates fragment
+class SellerStatsUpdatesImpl implements SellerStatsUpdates {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    SellerStatsUpdatesImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void recordTransition(Order order, Status from, Status to) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Update update = StatsIncrements.of(order, from, to, today);
+        if (update == null) {
+            return;
+        }
+        if (!StatsIncrements.addsDailySales(to)) {
+            mongoTemplate.upsert(StatsIncrements.seller(order), update, SellerStats.class);
+            return;
+        }
+        SellerStats stats = mongoTemplate.findAndModify(StatsIncrements.sellerDaily(order), update,
+            StatsIncrements.UPSERT_RETURN_NEW, SellerStats.class);
+        Update prune = stats != null ? StatsIncrements.prune(stats, today) : null;
+        if (prune != null) {
+            mongoTemplate.updateFirst(StatsIncrements.seller(order), prune, SellerStats.class);
+        }
+    }
+
+    @Override
+    public void merge(SellerStats totals) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(totals.getSellerId())),
+            StatsIncrements.merge(totals), SellerStats.class);
+    }
+}
@@ -0,0 +1,29 @@
+package service.order.mongo_repo;
+
+import service.order.models.StartupTask;
+
+import java.time.Instant;
+
+/**
+ * Atomic claims on {@link StartupTask}s, so a pass shared by several instances runs on one of them.
+ */
+public interface StartupTaskClaims {
+
+    /**
+     * Takes the task until {@code until} if it is not completed and no other instance holds an
+     * unexpired claim, creating it with {@code cutoff} on first use. Returns the claimed task, or
+     * null when it is completed or held elsewhere.
+     */
+    StartupTask claim(String name, Instant now, Instant until, Instant cutoff);
+
+    /**
+     * Records progress and extends the claim. Returns false if the claim was lost to another
+     * instance after it expired, in which case the caller must stop.
+     */
+    boolean advance(String name, Instant claimedUntil, String resumeAfter, Instant extendUntil);
+
+    /**
+     * Marks the task completed, provided the claim is still held.
+     */
+    boolean complete(String name, Instant claimedUntil, Instant now);
+}
@@ -0,0 +1,60 @@
+package service.order.mongo_repo;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import service.order.models.StartupTask;
+
+import java.time.Instant;
+
+// Picked up by Spring Data as the implementation of the StartupTaskClaims fragment
+class StartupTaskClaimsImpl implements StartupTaskClaims {
+
+    private static final String CLAIMED_UNTIL = "claimedUntil";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    StartupTaskClaimsImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public StartupTask claim(String name, Instant now, Instant until, Instant cutoff) {
+        // _id stays a top-level equality, so an upsert creates the task under that name
+        Query claimable = new Query(Criteria.where("_id").is(name)
+            .and("completedAt").exists(false)
+            .orOperator(Criteria.where(CLAIMED_UNTIL).exists(false), Criteria.where(CLAIMED_UNTIL).lt(now)));
+        Update update = new Update().set(CLAIMED_UNTIL, until).setOnInsert("cutoff", cutoff);
+        try {
+            return mongoTemplate.findAndModify(claimable, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), StartupTask.class);
+        } catch (DuplicateKeyException e) {
+            // The task exists but did not match: completed, or claimed by another instance
+            return null;
+        }
+    }
+
+    @Override
+    public boolean advance(String name, Instant claimedUntil, String resumeAfter, Instant extendUntil) {
+        return mongoTemplate.updateFirst(held(name, claimedUntil),
+            new Update().set("resumeAfter", resumeAfter).set(CLAIMED_UNTIL, extendUntil),
+            StartupTask.class).getModifiedCount() == 1;
+    }
+
+    @Override
+    public boolean complete(String name, Instant claimedUntil, Instant now) {
+        return mongoTemplate.updateFirst(held(name, claimedUntil),
+            new Update().set("completedAt", now).unset(CLAIMED_UNTIL),
+            StartupTask.class).getModifiedCount() == 1;
+    }
+
+    // Still claimed by the caller: nobody has taken the task over since
+    private static Query held(String name, Instant claimedUntil) {
+        return new Query(Criteria.where("_id").is(name).and(CLAIMED_UNTIL).is(claimedUntil));
+    }
+}
@@ -0,0 +1,7 @@
+package service.order.mongo_repo;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import service.order.models.StartupTask;
+
+public interface StartupTaskRepository extends MongoRepository<StartupTask, String>, StartupTaskClaims {
+}
@@ -0,0 +1,111 @@
+package service.order.mongo_repo;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.Status;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// The $inc upserts behind SellerStatsUpdates, shared by the blocking and reactive repositories
+final class StatsIncrements {
+
+    // Statuses whose total counts as pending revenue
+    private static final Set<Status> PENDING = Set.of(Status.STARTED, Status.ONGOING);
+    // Daily buckets kept, today included; older ones are dropped after the seller's next delivery
+    static final int DAYS_KEPT = 30;
+    // A delivery returns the seller's daily buckets as they are after it, to find the stale ones
+    static final FindAndModifyOptions UPSERT_RETURN_NEW = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+    private StatsIncrements() {
+    }
+
+    static Query seller(Order order) {
+        return new Query(Criteria.where("_id").is(order.getSellerId()));
+    }
+
+    // Only deliveries add to the daily buckets, so only they can leave stale ones behind
+    static boolean addsDailySales(Status to) {
+        return to == Status.DELIVERED;
+    }
+
+    static Query sellerDaily(Order order) {
+        Query query = seller(order);
+        query.fields().include("daily");
+        return query;
+    }
+
+    /**
+     * The update removing every daily bucket older than the window, or null when there is none.
+     */
+    static Update prune(SellerStats stats, LocalDate today) {
+        // ISO dates sort as strings
+        String oldestKept = today.minusDays(DAYS_KEPT - 1L).toString();
+        Update update = new Update();
+        stats.getDaily().keySet().stream()
+            .filter(day -> day.compareTo(oldestKept) < 0)
+            .forEach(day -> update.unset("daily." + day));
+        return update.getUpdateObject().isEmpty() ? null : update;
+    }
+
+    /**
+     * The update for one status change, or null when nothing changes.
+     */
+    static Update of(Order order, Status from, Status to, LocalDate today) {
+        if (from == to) {
+            return null;
+        }
+        Update update = new Update();
+        if (from != null) {
+            update.inc("counts." + from.name(), -1);
+        }
+        if (to != null) {
+            update.inc("counts." + to.name(), 1);
+        }
+
+        double total = order.getTotalPrice();
+        boolean wasPending = from != null && PENDING.contains(from);
+        boolean isPending = to != null && PENDING.contains(to);
+        if (isPending && !wasPending) {
+            update.inc("revenuePending", total);
+        } else if (wasPending && !isPending) {
+            update.inc("revenuePending", -total);
+        }
+
+        if (to == Status.DELIVERED) {
+            String day = "daily." + today;
+            String product = "products." + order.getProductId();
+            update.inc("revenueDelivered", total)
+                .inc("unitsDelivered", order.getQuantity())
+                .inc(day + ".orders", 1)
+                .inc(day + ".revenue", total)
+                .inc(product + ".units", order.getQuantity())
+                .inc(product + ".revenue", total)
+                .set(product + ".name", order.getProductName());
+        }
+        return update;
+    }
+
+    /**
+     * The update that adds every total of {@code totals} to what is stored.
+     */
+    static Update merge(SellerStats totals) {
+        Update update = new Update()
+            .inc("revenueDelivered", totals.getRevenueDelivered())
+            .inc("revenuePending", totals.getRevenuePending())
+            .inc("unitsDelivered", totals.getUnitsDelivered());
+        totals.getCounts().forEach((status, count) -> update.inc("counts." + status, count));
+        totals.getDaily().forEach((day, sales) -> update
+            .inc("daily." + day + ".orders", sales.getOrders())
+            .inc("daily." + day + ".revenue", sales.getRevenue()));
+        totals.getProducts().forEach((productId, sales) -> update
+            .inc("products." + productId + ".units", sales.getUnits())
+            .inc("products." + productId + ".revenue", sales.getRevenue())
+            .set("products." + productId + ".name", sales.getName()));
+        return update;
+    }
+}
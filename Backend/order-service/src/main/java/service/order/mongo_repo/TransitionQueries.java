@@ -0,0 +1,65 @@
+package service.order.mongo_repo;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import service.order.models.Order;
+import service.order.models.Status;
+
+import java.time.Instant;
+import java.util.Set;
+
+// The conditional updates behind OrderTransitions, shared by the blocking and reactive repositories
+final class TransitionQueries {
+
+    // The document from before the update is returned, since only it tells which status was left;
+    // the update itself is then replayed onto that copy
+    static final FindAndModifyOptions RETURN_PREVIOUS = FindAndModifyOptions.options().returnNew(false);
+
+    private TransitionQueries() {
+    }
+
+    static Query match(String orderId, OrderTransitions.Party party, String userId, Set<Status> from) {
+        return new Query(matching(orderId, party, userId, from));
+    }
+
+    // A cart order that has not been repriced since it was read
+    static Query matchUnchanged(String orderId, String buyerId, int quantity, double totalPrice) {
+        return new Query(new Criteria().andOperator(
+            matching(orderId, OrderTransitions.Party.BUYER, buyerId, Set.of(Status.ADDED)),
+            Criteria.where("quantity").is(quantity), Criteria.where("totalPrice").is(totalPrice)));
+    }
+
+    private static Criteria matching(String orderId, OrderTransitions.Party party, String userId, Set<Status> from) {
+        Criteria owner = switch (party) {
+            case BUYER -> Criteria.where("buyerId").is(userId);
+            case SELLER -> Criteria.where("sellerId").is(userId);
+            case BUYER_OR_SELLER -> new Criteria().orOperator(
+                Criteria.where("buyerId").is(userId), Criteria.where("sellerId").is(userId));
+        };
+        return new Criteria().andOperator(
+            Criteria.where("_id").is(orderId), owner, Criteria.where("status").in(from));
+    }
+
+    static Update moveTo(Status to, Instant now) {
+        return new Update().set("status", to).set("updatedAt", now);
+    }
+
+    static Update reprice(int quantity, double totalPrice, Instant now) {
+        return moveTo(Status.ADDED, now).set("quantity", quantity).set("totalPrice", totalPrice);
+    }
+
+    static OrderTransitions.Transition applied(Order previous, Status to, Instant now) {
+        Status from = previous.getStatus();
+        previous.setStatus(to);
+        previous.setUpdatedAt(now);
+        return new OrderTransitions.Transition(previous, from);
+    }
+
+    static OrderTransitions.Transition repriced(Order previous, int quantity, double totalPrice, Instant now) {
+        previous.setQuantity(quantity);
+        previous.setTotalPrice(totalPrice);
+        return applied(previous, Status.ADDED, now);
+    }
+}
@@ -1,6 +1,7 @@
 package service.order.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 /**
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Component;
  * Extends the shared JwtAuthenticationFilter from shared-commons.
  */
 @Component
+@Profile("!reactive")
 public class OrderJwtAuthenticationFilter extends service.commons.security.JwtAuthenticationFilter {
 
     private final JwtService jwtService;
@@ -0,0 +1,45 @@
+package service.order.security;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * WebFlux counterpart of {@link OrderJwtAuthenticationFilter}: the same bearer token handling,
+ * with the authentication carried in the reactive context instead of a thread-local. Not a bean, so
+ * WebFlux does not also register it outside the security chain.
+ */
+public class ReactiveJwtAuthenticationFilter implements WebFilter {
+
+    private final JwtService jwtService;
+
+    public ReactiveJwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String token = authHeader.substring(7);
+            String userId = jwtService.extractUserId(token);
+            String role = jwtService.extractRole(token);
+
+            if (userId != null && role != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    userId, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())));
+                return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+            }
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -1,8 +1,14 @@
 package service.order.security;
 
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -14,6 +20,7 @@ import org.springframework.web.client.RestTemplate;
 import service.commons.security.JwtAuthenticationFilter;
 
 @Configuration
+@Profile("!reactive")
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
@@ -26,10 +33,18 @@ public class SecurityConfig {
     }
 
     @Bean
-    public RestTemplate restTemplate() {
+    public RestTemplate restTemplate(@Value("${order.http.max-connections:200}") int maxConnections,
+                                     @Value("${order.http.max-connections-per-route:100}") int maxPerRoute) {
         // HttpComponentsClientHttpRequestFactory uses Apache HttpClient 5,
         // which properly supports HTTP PATCH — the default JDK client does not.
-        return new RestTemplate(new HttpComponentsClientHttpRequestFactory());
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxPerRoute)
+            .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .build();
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
     }
 
     @Bean
@@ -0,0 +1,82 @@
+package service.order.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import service.order.dtos.OrderDtos;
+
+import java.util.Locale;
+
+/**
+ * Line formats for streamed order exports. Each order becomes one self-contained line, so an
+ * export can be written as it is read without holding more than one order.
+ */
+public enum ExportFormat {
+    NDJSON("ndjson", "application/x-ndjson"),
+    CSV("csv", "text/csv");
+
+    private static final String CSV_HEADER =
+        "id,buyerId,sellerId,productId,productName,quantity,totalPrice,status,createdAt,updatedAt\n";
+
+    private final String key;
+    private final String contentType;
+
+    ExportFormat(String key, String contentType) {
+        this.key = key;
+        this.contentType = contentType;
+    }
+
+    public String key() {
+        return key;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public static ExportFormat fromKey(String key) {
+        for (ExportFormat format : values()) {
+            if (format.key.equals(key.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + key + ". Use ndjson or csv");
+    }
+
+    /**
+     * Text written before the first order, empty if the format has none.
+     */
+    String header() {
+        return this == CSV ? CSV_HEADER : "";
+    }
+
+    /**
+     * One order as a line, including its line break.
+     */
+    String line(OrderDtos.OrderResponse order, ObjectMapper objectMapper) {
+        if (this == NDJSON) {
+            try {
+                return objectMapper.writeValueAsString(order) + "\n";
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Failed to write order " + order.id(), e);
+            }
+        }
+        return String.join(",",
+            csv(order.id()), csv(order.buyerId()), csv(order.sellerId()), csv(order.productId()),
+            csv(order.productName()), String.valueOf(order.quantity()), String.valueOf(order.totalPrice()),
+            csv(order.status()), csv(order.createdAt()), csv(order.updatedAt())) + "\n";
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        // A leading formula character would be evaluated when the file is opened in a spreadsheet
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
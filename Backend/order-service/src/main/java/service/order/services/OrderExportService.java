@@ -0,0 +1,45 @@
+package service.order.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import service.order.mongo_repo.OrderRepository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+/**
+ * Seller order exports read from an open Mongo cursor, so memory use stays at one cursor batch
+ * however many orders the seller has.
+ */
+@Service
+@Profile("!reactive")
+public class OrderExportService {
+
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "orderId");
+
+    private final OrderRepository repo;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OrderExportService(OrderRepository repo, ObjectMapper objectMapper) {
+        this.repo = repo;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The seller's orders created on the UTC days {@code from} to {@code to} (both optional and
+     * inclusive), oldest first, one line each after the format's header. The range is validated
+     * when this is called, before anything is written. The stream holds the cursor open and must
+     * be closed.
+     */
+    public Stream<String> exportSellerOrders(String sellerId, LocalDate from, LocalDate to, ExportFormat format) {
+        Range<String> ids = OrderIds.createdBetween(from, to);
+        Stream<String> lines = repo.findBySellerIdAndOrderIdBetween(sellerId, ids, OLDEST_FIRST)
+                .map(order -> format.line(OrderMapper.toResponse(order), objectMapper));
+        return format.header().isEmpty() ? lines : Stream.concat(Stream.of(format.header()), lines);
+    }
+}
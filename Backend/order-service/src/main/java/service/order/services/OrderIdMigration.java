@@ -0,0 +1,129 @@
+package service.order.services;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import service.order.models.Order;
+import service.order.mongo_repo.OrderRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Re-keys orders created before time-ordered ids. Until then they are invisible to the keyset
+ * history queries, which only range over string ids. Each order is copied under the id
+ * {@link OrderIds#fromObjectId} derives from its ObjectId, and the original is then removed only
+ * if it is unchanged since the copy; a change in between is copied again. The derived id is stable,
+ * so a run interrupted between the two steps is finished by the next one, and the services resolve
+ * a legacy id to it, so clients holding the old id keep working.
+ *
+ * <p>The migration runs once all beans exist but before the web server starts, so this instance
+ * serves no requests while orders move. Other instances still serving during a rolling deploy are
+ * covered by the conditional delete.
+ */
+@Service
+@Profile("!reactive")
+public class OrderIdMigration implements SmartInitializingSingleton {
+    private static final Logger log = LoggerFactory.getLogger(OrderIdMigration.class);
+    // Copies of one order before giving up on it until the next start
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final OrderRepository repo;
+    private final boolean enabled;
+    private final int batchSize;
+
+    @Autowired
+    public OrderIdMigration(OrderRepository repo,
+                            @Value("${order.id-migration.enabled:true}") boolean enabled,
+                            @Value("${order.id-migration.batch-size:500}") int batchSize) {
+        this.repo = repo;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    // Before the web server starts, and so also ahead of SellerStatsBackfill on ApplicationReadyEvent
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            migrateAll();
+        } catch (DataAccessException e) {
+            // Not fatal: the service still serves everything created since, and the next start retries
+            log.error("Order id migration failed", e);
+        }
+    }
+
+    private void migrateAll() {
+        long migrated = 0;
+        List<Order> batch;
+        // Stop on a batch without progress rather than spin on documents that keep failing
+        do {
+            batch = repo.findWithObjectIds(PageRequest.of(0, batchSize));
+            long before = migrated;
+            for (Order order : batch) {
+                if (migrate(order)) {
+                    migrated++;
+                }
+            }
+            if (migrated == before) {
+                break;
+            }
+        } while (batch.size() == batchSize);
+        if (migrated > 0) {
+            log.info("Moved {} orders to time-ordered ids", migrated);
+        }
+    }
+
+    private boolean migrate(Order legacy) {
+        String legacyId = legacy.getOrderId();
+        try {
+            String id = OrderIds.fromObjectId(new ObjectId(legacyId));
+            Order current = legacy;
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                copy(current, id);
+                if (repo.deleteByOrderIdAndStatusAndQuantityAndUpdatedAt(legacyId, current.getStatus(),
+                        current.getQuantity(), current.getUpdatedAt()) > 0) {
+                    return true;
+                }
+                // Changed since it was read, so copy it again; or already removed by another instance
+                Optional<Order> reread = repo.findById(legacyId);
+                if (reread.isEmpty()) {
+                    return true;
+                }
+                current = reread.get();
+            }
+            log.warn("Order {} kept changing during the id migration, leaving it for the next start", legacyId);
+            return false;
+        } catch (RuntimeException e) {
+            log.error("Failed to migrate order {}", legacyId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Writes the legacy order under its new id. A copy left by an interrupted run is replaced,
+     * unless it changed after the legacy order did, since clients may have used it in between.
+     */
+    private void copy(Order legacy, String id) {
+        Optional<Order> existing = repo.findById(id);
+        if (existing.isPresent() && isAfter(existing.get().getUpdatedAt(), legacy.getUpdatedAt())) {
+            return;
+        }
+        legacy.setOrderId(id);
+        repo.save(legacy);
+    }
+
+    private static boolean isAfter(Instant a, Instant b) {
+        return a != null && (b == null || a.isAfter(b));
+    }
+}
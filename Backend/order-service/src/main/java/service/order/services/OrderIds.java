@@ -0,0 +1,142 @@
+package service.order.services;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Time-ordered order ids in the ULID format: 26 Crockford base32 characters encoding a 48-bit
+ * millisecond timestamp followed by 80 random bits. Ids sort lexicographically in creation order,
+ * so history can be paged and range-scanned on {@code _id} alone. Ids made in the same millisecond
+ * by this instance increase monotonically.
+ */
+final class OrderIds {
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 26;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    // Above every id: history without a cursor starts from the newest order, and an export
+    // without an end date runs past the last one
+    private static final String AFTER_ALL = "ZZZZZZZZZZZZZZZZZZZZZZZZZZ";
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "orderId");
+
+    // Last id handed out: its timestamp and its 80 random bits, split 16 + 64
+    private static long lastTime = -1;
+    private static long lastRandomHigh;
+    private static long lastRandomLow;
+
+    private OrderIds() {
+    }
+
+    static String next() {
+        long now = System.currentTimeMillis();
+        LOCK.lock();
+        try {
+            if (now > lastTime) {
+                lastTime = now;
+                lastRandomHigh = RANDOM.nextInt() & 0xFFFFL;
+                lastRandomLow = RANDOM.nextLong();
+            } else {
+                // Same millisecond, or the clock stepped back: keep the last timestamp and count up
+                lastRandomLow++;
+                if (lastRandomLow == 0) {
+                    lastRandomHigh = (lastRandomHigh + 1) & 0xFFFFL;
+                    if (lastRandomHigh == 0) {
+                        lastTime++;
+                    }
+                }
+            }
+            return encode(lastTime, lastRandomHigh, lastRandomLow);
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * The id a legacy ObjectId-keyed order is migrated to. It is derived only from the ObjectId, so
+     * a migration that is interrupted and repeated produces the same id again.
+     */
+    static String fromObjectId(ObjectId objectId) {
+        byte[] bytes = objectId.toByteArray();
+        long high = ((bytes[2] & 0xFFL) << 8) | (bytes[3] & 0xFFL);
+        long low = 0;
+        for (int i = 4; i < 12; i++) {
+            low = (low << 8) | (bytes[i] & 0xFFL);
+        }
+        return encode(objectId.getTimestamp() * 1000L, high, low);
+    }
+
+    /**
+     * The id an order with this legacy ObjectId id was migrated to, or null for any other id.
+     */
+    static String migratedId(String orderId) {
+        return ObjectId.isValid(orderId) ? fromObjectId(new ObjectId(orderId)) : null;
+    }
+
+    /**
+     * Keyset cursor for a history query: orders with ids below {@code before}, or all orders.
+     */
+    static String cursor(String before) {
+        return before == null || before.isBlank() ? AFTER_ALL : before;
+    }
+
+    /**
+     * Newest-first history of at most {@code limit} orders, capped at {@code maxPageSize};
+     * without a limit the whole history, as before paging existed.
+     */
+    static Pageable newestFirst(Integer limit, int maxPageSize) {
+        if (limit == null) {
+            return Pageable.unpaged(NEWEST_FIRST);
+        }
+        return PageRequest.of(0, Math.clamp(limit, 1, maxPageSize), NEWEST_FIRST);
+    }
+
+    /**
+     * The ids of orders created on the UTC days {@code from} to {@code to}, both inclusive. Either
+     * end may be null for an open range. Works on ids alone, since they start with their creation time.
+     */
+    static Range<String> createdBetween(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        // Explicit ends rather than unbounded ones, so the query always has both conditions
+        String lower = from == null ? "" : firstIdAt(from);
+        String upper = to == null ? AFTER_ALL : firstIdAt(to.plusDays(1));
+        return Range.rightOpen(lower, upper);
+    }
+
+    // The smallest id that can be made at the start of a UTC day
+    private static String firstIdAt(LocalDate day) {
+        return encode(day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli(), 0, 0);
+    }
+
+    private static String encode(long time, long randomHigh, long randomLow) {
+        char[] out = new char[LENGTH];
+        // 48-bit timestamp in the first 10 characters
+        for (int i = 9; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (time & 0x1F)];
+            time >>>= 5;
+        }
+        // 80 random bits in the last 16: the low 64 bits fill 12 characters and 4 bits of the
+        // 13th from the end, whose remaining bit comes from the high 16
+        for (int i = 25; i >= 14; i--) {
+            out[i] = ALPHABET[(int) (randomLow & 0x1F)];
+            randomLow >>>= 5;
+        }
+        out[13] = ALPHABET[(int) ((randomLow & 0xF) | ((randomHigh & 0x1) << 4))];
+        randomHigh >>>= 1;
+        for (int i = 12; i >= 10; i--) {
+            out[i] = ALPHABET[(int) (randomHigh & 0x1F)];
+            randomHigh >>>= 5;
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,65 @@
+package service.order.services;
+
+import service.order.dtos.OrderDtos;
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.Status;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order to API response mapping, shared by the blocking and reactive order services.
+ */
+final class OrderMapper {
+
+    private static final int DAYS_SHOWN = 30;
+    private static final int BEST_SELLERS = 5;
+
+    private OrderMapper() {
+    }
+
+    static OrderDtos.OrderResponse toResponse(Order o) {
+        return new OrderDtos.OrderResponse(
+            o.getOrderId(),
+            o.getBuyerId(),
+            o.getSellerId(),
+            o.getProductId(),
+            o.getProductName(),
+            o.getQuantity(),
+            o.getTotalPrice(),
+            o.getStatus().name(),
+            o.getCreatedAt() != null ? o.getCreatedAt().toString() : null,
+            o.getUpdatedAt() != null ? o.getUpdatedAt().toString() : null
+        );
+    }
+
+    static OrderDtos.SellerStatsResponse toStatsResponse(SellerStats stats, LocalDate today) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Status status : Status.values()) {
+            counts.put(status.name(), stats.getCounts().getOrDefault(status.name(), 0L));
+        }
+
+        // Every day of the window, so gaps show as zero; older buckets not yet dropped are ignored
+        List<OrderDtos.DailySalesResponse> days = new ArrayList<>(DAYS_SHOWN);
+        for (LocalDate day = today.minusDays(DAYS_SHOWN - 1L); !day.isAfter(today); day = day.plusDays(1)) {
+            SellerStats.DailySales sales = stats.getDaily().get(day.toString());
+            days.add(new OrderDtos.DailySalesResponse(day.toString(),
+                sales != null ? sales.getOrders() : 0, sales != null ? sales.getRevenue() : 0));
+        }
+
+        List<OrderDtos.ProductSalesResponse> bestSellers = stats.getProducts().entrySet().stream()
+            .map(e -> new OrderDtos.ProductSalesResponse(e.getKey(), e.getValue().getName(),
+                e.getValue().getUnits(), e.getValue().getRevenue()))
+            .sorted(Comparator.comparingDouble(OrderDtos.ProductSalesResponse::revenue).reversed())
+            .limit(BEST_SELLERS)
+            .toList();
+
+        return new OrderDtos.SellerStatsResponse(counts, stats.getRevenueDelivered(), stats.getRevenuePending(),
+            stats.getUnitsDelivered(), days, bestSellers);
+    }
+}
@@ -2,6 +2,7 @@ package service.order.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -16,35 +17,51 @@ import service.order.exceptions.ProductNotFoundException;
 import service.order.models.Order;
 import service.order.models.Status;
 import service.order.mongo_repo.OrderRepository;
+import service.order.mongo_repo.OrderTransitions.Party;
+import service.order.mongo_repo.OrderTransitions.Transition;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import service.order.clients.UserServiceClient;
 import service.order.clients.ProductServiceClient;
 
 @Service
+@Profile("!reactive")
 public class OrderService {
 
     private static final String PRODUCT_PRICE_KEY = "price";
+    // Statuses in which the buyer has paid and a cancel must refund
+    private static final Set<Status> PAID = Set.of(Status.STARTED, Status.ONGOING);
+    // Statuses an order can be cancelled from
+    private static final Set<Status> CANCELLABLE = Set.of(Status.ADDED, Status.STARTED, Status.ONGOING);
+    // Statuses an order can be reordered from
+    private static final Set<Status> FINISHED = Set.of(Status.DELIVERED, Status.CANCELLED);
 
     private final OrderRepository repo;
     private final RestTemplate restTemplate;
     private final UserServiceClient userServiceClient;
     private final ProductServiceClient productServiceClient;
+    private final SellerStatsService sellerStats;
 
     @Value("${product.service.url}")
     private String productServiceUrl;
 
+    @Value("${order.history.max-page-size:100}")
+    private int maxPageSize;
+
     @Autowired
     public OrderService(OrderRepository repo, RestTemplate restTemplate,
                         UserServiceClient userServiceClient,
-                        ProductServiceClient productServiceClient) {
+                        ProductServiceClient productServiceClient,
+                        SellerStatsService sellerStats) {
         this.repo = repo;
         this.restTemplate = restTemplate;
         this.userServiceClient = userServiceClient;
         this.productServiceClient = productServiceClient;
+        this.sellerStats = sellerStats;
     }
 
     // Add product to cart (ADDED status)
@@ -62,6 +79,7 @@ public class OrderService {
         }
 
         Order order = new Order();
+        order.setOrderId(OrderIds.next());
         order.setBuyerId(buyerId);
         order.setSellerId(sellerId);
         order.setProductId(req.productId());
@@ -72,7 +90,9 @@ public class OrderService {
         order.setCreatedAt(Instant.now());
         order.setUpdatedAt(Instant.now());
 
-        return toDto(repo.save(order));
+        Order saved = repo.insert(order);
+        sellerStats.recordCreated(saved);
+        return toDto(saved);
     }
 
     // Get buyer's cart (ADDED orders)
@@ -83,24 +103,28 @@ public class OrderService {
                 .toList();
     }
 
-    // Get buyer's placed/active/history orders (everything except ADDED)
-    public List<OrderDtos.OrderResponse> getMyOrders(String buyerId) {
-        return repo.findByBuyerId(buyerId).stream()
-                .filter(o -> o.getStatus() != Status.ADDED)
+    // Get buyer's placed/active/history orders (everything except ADDED), newest first;
+    // with a limit, one page of orders older than the "before" cursor
+    public List<OrderDtos.OrderResponse> getMyOrders(String buyerId, String before, Integer limit) {
+        return repo.findByBuyerIdAndStatusNotAndOrderIdLessThan(buyerId, Status.ADDED,
+                        OrderIds.cursor(before), OrderIds.newestFirst(limit, maxPageSize))
+                .stream()
                 .map(this::toDto)
                 .toList();
     }
 
-    // Get seller's incoming orders
-    public List<OrderDtos.OrderResponse> getSellerOrders(String sellerId) {
-        return repo.findBySellerId(sellerId)
+    // Get seller's incoming orders, paged the same way
+    public List<OrderDtos.OrderResponse> getSellerOrders(String sellerId, String before, Integer limit) {
+        return repo.findBySellerIdAndOrderIdLessThan(sellerId, OrderIds.cursor(before),
+                        OrderIds.newestFirst(limit, maxPageSize))
                 .stream()
                 .map(this::toDto)
                 .toList();
     }
 
     // Update quantity (ADDED only)
-    public OrderDtos.OrderResponse updateQuantity(String orderId, String buyerId, int quantity) {
+    public OrderDtos.OrderResponse updateQuantity(String requestedId, String buyerId, int quantity) {
+        String orderId = resolve(requestedId);
         Order order = findAndCheckBuyer(orderId, buyerId);
         if (order.getStatus() != Status.ADDED) {
             throw new IllegalStateException("Can only update quantity of cart items");
@@ -114,14 +138,17 @@ public class OrderService {
                 String.format("Only %d unit(s) of '%s' are available.", availableStock, product.get("name")));
         }
 
-        order.setQuantity(quantity);
-        order.setTotalPrice(price * quantity);
-        order.setUpdatedAt(Instant.now());
-        return toDto(repo.save(order));
+        // Only while still in the cart: a concurrent place must not be undone
+        Transition repriced = repo.findAndReprice(orderId, buyerId, Set.of(Status.ADDED), quantity, price * quantity);
+        if (repriced == null) {
+            throw rejectedTransition(orderId, Party.BUYER, buyerId, "Can only update quantity of cart items");
+        }
+        return toDto(repriced.order());
     }
 
     // Buyer pays — ADDED -> STARTED
-    public OrderDtos.OrderResponse placeOrder(String orderId, String buyerId) {
+    public OrderDtos.OrderResponse placeOrder(String requestedId, String buyerId) {
+        String orderId = resolve(requestedId);
         Order order = findAndCheckBuyer(orderId, buyerId);
         if (order.getStatus() != Status.ADDED) {
             throw new IllegalStateException("Only cart items can be placed");
@@ -141,80 +168,87 @@ public class OrderService {
                     order.getProductName(), order.getQuantity(), availableStock));
         }
 
-        order.setStatus(Status.STARTED);
-        order.setUpdatedAt(Instant.now());
-        Order saved = repo.save(order);
-        userServiceClient.deductFromBuyer(buyerId, order.getTotalPrice());
-        productServiceClient.adjustStock(order.getProductId(), -order.getQuantity());
+        // Conditional on the order still being in the cart, so a concurrent place cannot pay twice, and
+        // on the quantity and total checked above, so a concurrent quantity update cannot go unchecked
+        Transition placed = repo.findAndPlace(orderId, buyerId, order.getQuantity(), order.getTotalPrice());
+        if (placed == null) {
+            throw rejectedTransition(orderId, Party.BUYER, buyerId, "Only cart items can be placed");
+        }
+        sellerStats.recordTransition(placed);
+        Order saved = placed.order();
+        userServiceClient.deductFromBuyer(buyerId, saved.getTotalPrice());
+        productServiceClient.adjustStock(saved.getProductId(), -saved.getQuantity());
         return toDto(saved);
     }
 
     // Seller confirms — STARTED -> ONGOING
-    public OrderDtos.OrderResponse markOngoing(String orderId, String sellerId) {
-        Order order = findAndCheckSeller(orderId, sellerId);
-        if (order.getStatus() != Status.STARTED) {
-            throw new IllegalStateException("Order must be in STARTED status");
+    public OrderDtos.OrderResponse markOngoing(String requestedId, String sellerId) {
+        String orderId = resolve(requestedId);
+        Transition confirmed = repo.findAndTransition(orderId, Party.SELLER, sellerId, Set.of(Status.STARTED), Status.ONGOING);
+        if (confirmed == null) {
+            throw rejectedTransition(orderId, Party.SELLER, sellerId, "Order must be in STARTED status");
         }
-        order.setStatus(Status.ONGOING);
-        order.setUpdatedAt(Instant.now());
-        return toDto(repo.save(order));
+        sellerStats.recordTransition(confirmed);
+        return toDto(confirmed.order());
     }
 
     // Buyer confirms delivery — ONGOING -> DELIVERED
-    public OrderDtos.OrderResponse markDelivered(String orderId, String buyerId) {
-        Order order = findAndCheckBuyer(orderId, buyerId);
-        if (order.getStatus() != Status.ONGOING) {
-            throw new IllegalStateException("Order must be in ONGOING status");
+    public OrderDtos.OrderResponse markDelivered(String requestedId, String buyerId) {
+        String orderId = resolve(requestedId);
+        Transition delivered = repo.findAndTransition(orderId, Party.BUYER, buyerId, Set.of(Status.ONGOING), Status.DELIVERED);
+        if (delivered == null) {
+            throw rejectedTransition(orderId, Party.BUYER, buyerId, "Order must be in ONGOING status");
         }
-        order.setStatus(Status.DELIVERED);
-        order.setUpdatedAt(Instant.now());
-        Order saved = repo.save(order);
-        userServiceClient.creditSeller(order.getSellerId(), order.getTotalPrice());
+        sellerStats.recordTransition(delivered);
+        Order saved = delivered.order();
+        userServiceClient.creditSeller(saved.getSellerId(), saved.getTotalPrice());
         return toDto(saved);
     }
 
     // Cancel order — buyer or seller, refunds money if already paid
-    public OrderDtos.OrderResponse cancelOrder(String orderId, String userId) {
-        Order order = findById(orderId);
-        if (!order.getBuyerId().equals(userId) && !order.getSellerId().equals(userId)) {
-            throw new OrderAccessDeniedException("Not authorized to cancel this order");
-        }
-        if (order.getStatus() == Status.DELIVERED || order.getStatus() == Status.CANCELLED) {
-            throw new IllegalStateException("Cannot cancel a delivered or already cancelled order");
+    public OrderDtos.OrderResponse cancelOrder(String requestedId, String userId) {
+        String orderId = resolve(requestedId);
+        Transition cancelled = repo.findAndTransition(orderId, Party.BUYER_OR_SELLER, userId, CANCELLABLE, Status.CANCELLED);
+        if (cancelled == null) {
+            throw rejectedTransition(orderId, Party.BUYER_OR_SELLER, userId,
+                "Cannot cancel a delivered or already cancelled order");
         }
-        boolean alreadyPaid = order.getStatus() == Status.STARTED || order.getStatus() == Status.ONGOING;
-        order.setStatus(Status.CANCELLED);
-        order.setUpdatedAt(Instant.now());
-        Order saved = repo.save(order);
+        sellerStats.recordTransition(cancelled);
+        Order saved = cancelled.order();
+        // A refund is due only if the order had been paid for
+        boolean alreadyPaid = PAID.contains(cancelled.from());
         if (alreadyPaid) {
-            userServiceClient.refundBuyer(order.getBuyerId(), order.getTotalPrice());
+            userServiceClient.refundBuyer(saved.getBuyerId(), saved.getTotalPrice());
             productServiceClient.adjustStock(saved.getProductId(), saved.getQuantity());
         }
         return toDto(saved);
     }
 
     // Delete from cart (ADDED only)
-    public void deleteOrder(String orderId, String buyerId) {
-        Order order = findAndCheckBuyer(orderId, buyerId);
-        if (order.getStatus() != Status.ADDED) {
-            throw new IllegalStateException("Can only delete cart items");
+    public void deleteOrder(String requestedId, String buyerId) {
+        String orderId = resolve(requestedId);
+        Order removed = repo.deleteByOrderIdAndBuyerIdAndStatus(orderId, buyerId, Status.ADDED);
+        if (removed == null) {
+            throw rejectedTransition(orderId, Party.BUYER, buyerId, "Can only delete cart items");
         }
-        repo.delete(order);
+        sellerStats.recordRemoved(removed);
     }
 
     // Reorder — restore a DELIVERED/CANCELLED order to ADDED with new quantity
-    public OrderDtos.OrderResponse reorder(String orderId, String buyerId, int quantity) {
+    public OrderDtos.OrderResponse reorder(String requestedId, String buyerId, int quantity) {
+        String orderId = resolve(requestedId);
         Order order = findAndCheckBuyer(orderId, buyerId);
         if (order.getStatus() != Status.DELIVERED && order.getStatus() != Status.CANCELLED) {
             throw new IllegalStateException("Can only reorder delivered or cancelled orders");
         }
         Map<String, Object> product = fetchProduct(order.getProductId());
         double price = ((Number) product.get(PRODUCT_PRICE_KEY)).doubleValue();
-        order.setQuantity(quantity);
-        order.setTotalPrice(price * quantity);
-        order.setStatus(Status.ADDED);
-        order.setUpdatedAt(Instant.now());
-        return toDto(repo.save(order));
+        Transition reordered = repo.findAndReprice(orderId, buyerId, FINISHED, quantity, price * quantity);
+        if (reordered == null) {
+            throw rejectedTransition(orderId, Party.BUYER, buyerId, "Can only reorder delivered or cancelled orders");
+        }
+        sellerStats.recordTransition(reordered);
+        return toDto(reordered.order());
     }
 
     // --- Helpers ---
@@ -230,6 +264,29 @@ public class OrderService {
         return product;
     }
 
+    // Explains why a conditional transition matched nothing: a missing order, the wrong user,
+    // or a status the transition does not start from
+    private RuntimeException rejectedTransition(String orderId, Party party, String userId, String statusMessage) {
+        Order order = findById(orderId);
+        boolean allowed = switch (party) {
+            case BUYER -> order.getBuyerId().equals(userId);
+            case SELLER -> order.getSellerId().equals(userId);
+            case BUYER_OR_SELLER -> order.getBuyerId().equals(userId) || order.getSellerId().equals(userId);
+        };
+        if (!allowed) {
+            return new OrderAccessDeniedException(party == Party.BUYER_OR_SELLER
+                ? "Not authorized to cancel this order"
+                : "Not authorized to access this order");
+        }
+        return new IllegalStateException(statusMessage);
+    }
+
+    // Links and clients still holding an order's ObjectId keep working after the id migration
+    private String resolve(String orderId) {
+        String migrated = OrderIds.migratedId(orderId);
+        return migrated == null || repo.existsById(orderId) ? orderId : migrated;
+    }
+
     private Order findById(String orderId) {
         return repo.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
@@ -243,26 +300,7 @@ public class OrderService {
         return order;
     }
 
-    private Order findAndCheckSeller(String orderId, String sellerId) {
-        Order order = findById(orderId);
-        if (!order.getSellerId().equals(sellerId)) {
-            throw new OrderAccessDeniedException("Not authorized to access this order");
-        }
-        return order;
-    }
-
     public OrderDtos.OrderResponse toDto(Order o) {
-        return new OrderDtos.OrderResponse(
-            o.getOrderId(),
-            o.getBuyerId(),
-            o.getSellerId(),
-            o.getProductId(),
-            o.getProductName(),
-            o.getQuantity(),
-            o.getTotalPrice(),
-            o.getStatus().name(),
-            o.getCreatedAt() != null ? o.getCreatedAt().toString() : null,
-            o.getUpdatedAt() != null ? o.getUpdatedAt().toString() : null
-        );
+        return OrderMapper.toResponse(o);
     }
 }
@@ -0,0 +1,44 @@
+package service.order.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Range;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import service.order.mongo_repo.ReactiveOrderRepository;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking implementation of {@link OrderExportService}, used by the "reactive" profile. Lines
+ * are emitted as the cursor is read, at the pace the client consumes them.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveOrderExportService {
+
+    private static final Sort OLDEST_FIRST = Sort.by(Sort.Direction.ASC, "orderId");
+
+    private final ReactiveOrderRepository repo;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ReactiveOrderExportService(ReactiveOrderRepository repo, ObjectMapper objectMapper) {
+        this.repo = repo;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The seller's orders created on the UTC days {@code from} to {@code to} (both optional and
+     * inclusive), oldest first, one line each after the format's header. The range is validated
+     * when this is called, before the response starts.
+     */
+    public Flux<String> exportSellerOrders(String sellerId, LocalDate from, LocalDate to, ExportFormat format) {
+        Range<String> ids = OrderIds.createdBetween(from, to);
+        Flux<String> lines = repo.findBySellerIdAndOrderIdBetween(sellerId, ids, OLDEST_FIRST)
+                .map(order -> format.line(OrderMapper.toResponse(order), objectMapper));
+        return format.header().isEmpty() ? lines : Flux.concat(Flux.just(format.header()), lines);
+    }
+}
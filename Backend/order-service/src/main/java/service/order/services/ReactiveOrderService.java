@@ -0,0 +1,280 @@
+package service.order.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import service.order.clients.ReactiveProductServiceClient;
+import service.order.clients.ReactiveUserServiceClient;
+import service.order.dtos.OrderDtos;
+import service.order.exceptions.InsufficientFundsException;
+import service.order.exceptions.InsufficientStockException;
+import service.order.exceptions.OrderAccessDeniedException;
+import service.order.exceptions.OrderNotFoundException;
+import service.order.models.Order;
+import service.order.models.Status;
+import service.order.mongo_repo.OrderTransitions.Party;
+import service.order.mongo_repo.OrderTransitions.Transition;
+import service.order.mongo_repo.ReactiveOrderRepository;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Non-blocking implementation of {@link OrderService}, used by the "reactive" profile. The
+ * order lifecycle and its rules are the same; independent reads are made concurrently, while
+ * wallet and stock writes keep the blocking order.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveOrderService {
+
+    private static final String PRODUCT_PRICE_KEY = "price";
+    // Statuses in which the buyer has paid and a cancel must refund
+    private static final Set<Status> PAID = Set.of(Status.STARTED, Status.ONGOING);
+    // Statuses an order can be cancelled from
+    private static final Set<Status> CANCELLABLE = Set.of(Status.ADDED, Status.STARTED, Status.ONGOING);
+    // Statuses an order can be reordered from
+    private static final Set<Status> FINISHED = Set.of(Status.DELIVERED, Status.CANCELLED);
+
+    private final ReactiveOrderRepository repo;
+    private final ReactiveUserServiceClient userServiceClient;
+    private final ReactiveProductServiceClient productServiceClient;
+    private final ReactiveSellerStatsService sellerStats;
+    private final int maxPageSize;
+
+    @Autowired
+    public ReactiveOrderService(ReactiveOrderRepository repo,
+                                ReactiveUserServiceClient userServiceClient,
+                                ReactiveProductServiceClient productServiceClient,
+                                ReactiveSellerStatsService sellerStats,
+                                @Value("${order.history.max-page-size:100}") int maxPageSize) {
+        this.repo = repo;
+        this.userServiceClient = userServiceClient;
+        this.productServiceClient = productServiceClient;
+        this.sellerStats = sellerStats;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Add product to cart (ADDED status)
+    public Mono<OrderDtos.OrderResponse> addToCart(String buyerId, OrderDtos.AddToCartRequest req) {
+        return productServiceClient.getProduct(req.productId()).flatMap(product -> {
+            String productName = (String) product.get("name");
+            double price = ((Number) product.get(PRODUCT_PRICE_KEY)).doubleValue();
+            int availableStock = ((Number) product.get("quantity")).intValue();
+
+            if (req.quantity() > availableStock) {
+                return Mono.error(new InsufficientStockException(
+                    String.format("Only %d unit(s) of '%s' are available.", availableStock, productName)));
+            }
+
+            Order order = new Order();
+            order.setOrderId(OrderIds.next());
+            order.setBuyerId(buyerId);
+            order.setSellerId((String) product.get("userId"));
+            order.setProductId(req.productId());
+            order.setProductName(productName);
+            order.setQuantity(req.quantity());
+            order.setTotalPrice(price * req.quantity());
+            order.setStatus(Status.ADDED);
+            order.setCreatedAt(Instant.now());
+            order.setUpdatedAt(Instant.now());
+            return repo.insert(order);
+        })
+        .flatMap(saved -> sellerStats.recordCreated(saved).thenReturn(saved))
+        .map(OrderMapper::toResponse);
+    }
+
+    // Get buyer's cart (ADDED orders)
+    public Flux<OrderDtos.OrderResponse> getCart(String buyerId) {
+        return repo.findByBuyerIdAndStatus(buyerId, Status.ADDED).map(OrderMapper::toResponse);
+    }
+
+    // Get buyer's placed/active/history orders (everything except ADDED), newest first;
+    // with a limit, one page of orders older than the "before" cursor
+    public Flux<OrderDtos.OrderResponse> getMyOrders(String buyerId, String before, Integer limit) {
+        return repo.findByBuyerIdAndStatusNotAndOrderIdLessThan(buyerId, Status.ADDED,
+                        OrderIds.cursor(before), OrderIds.newestFirst(limit, maxPageSize))
+                .map(OrderMapper::toResponse);
+    }
+
+    // Get seller's incoming orders, paged the same way
+    public Flux<OrderDtos.OrderResponse> getSellerOrders(String sellerId, String before, Integer limit) {
+        return repo.findBySellerIdAndOrderIdLessThan(sellerId, OrderIds.cursor(before),
+                        OrderIds.newestFirst(limit, maxPageSize))
+                .map(OrderMapper::toResponse);
+    }
+
+    // Update quantity (ADDED only)
+    public Mono<OrderDtos.OrderResponse> updateQuantity(String requestedId, String buyerId, int quantity) {
+        return resolve(requestedId).flatMap(orderId ->
+            findAndCheckBuyer(orderId, buyerId)
+                    .flatMap(order -> requireStatus(order, Status.ADDED, "Can only update quantity of cart items"))
+                    .flatMap(order -> productServiceClient.getProduct(order.getProductId()).flatMap(product -> {
+                        double price = ((Number) product.get(PRODUCT_PRICE_KEY)).doubleValue();
+                        int availableStock = ((Number) product.get("quantity")).intValue();
+
+                        if (quantity > availableStock) {
+                            return Mono.error(new InsufficientStockException(
+                                String.format("Only %d unit(s) of '%s' are available.", availableStock, product.get("name"))));
+                        }
+
+                        // Only while still in the cart: a concurrent place must not be undone
+                        return repo.findAndReprice(orderId, buyerId, Set.of(Status.ADDED), quantity, price * quantity)
+                            .map(Transition::order)
+                            .switchIfEmpty(rejectedTransition(orderId, Party.BUYER, buyerId,
+                                "Can only update quantity of cart items"));
+                    }))
+                    .map(OrderMapper::toResponse));
+    }
+
+    // Buyer pays — ADDED -> STARTED
+    public Mono<OrderDtos.OrderResponse> placeOrder(String requestedId, String buyerId) {
+        return resolve(requestedId).flatMap(orderId ->
+            findAndCheckBuyer(orderId, buyerId)
+                    .flatMap(order -> requireStatus(order, Status.ADDED, "Only cart items can be placed"))
+                    // Balance and stock are independent reads, so both requests are in flight at once
+                    .flatMap(order -> Mono.zip(userServiceClient.getBalance(buyerId),
+                                               productServiceClient.getStock(order.getProductId()))
+                        .flatMap(checks -> {
+                            double balance = checks.getT1();
+                            int availableStock = checks.getT2();
+                            if (balance < order.getTotalPrice()) {
+                                return Mono.error(new InsufficientFundsException(
+                                    String.format("Insufficient balance. Required: $%.2f, Available: $%.2f",
+                                        order.getTotalPrice(), balance)));
+                            }
+                            if (order.getQuantity() > availableStock) {
+                                return Mono.error(new InsufficientStockException(
+                                    String.format("Not enough stock for '%s'. Requested: %d, Available: %d",
+                                        order.getProductName(), order.getQuantity(), availableStock)));
+                            }
+                            // Conditional on the order still being in the cart, so a concurrent place cannot pay twice, and
+                            // on the quantity and total checked above, so a concurrent quantity update cannot go unchecked
+                            return repo.findAndPlace(orderId, buyerId, order.getQuantity(), order.getTotalPrice())
+                                .flatMap(this::recorded)
+                                .switchIfEmpty(rejectedTransition(orderId, Party.BUYER, buyerId,
+                                    "Only cart items can be placed"));
+                        }))
+                    // Stock is taken only once the buyer has paid, as in the blocking service
+                    .flatMap(saved -> userServiceClient.deductFromBuyer(buyerId, saved.getTotalPrice())
+                        .then(productServiceClient.adjustStock(saved.getProductId(), -saved.getQuantity()))
+                        .thenReturn(saved))
+                    .map(OrderMapper::toResponse));
+    }
+
+    // Seller confirms — STARTED -> ONGOING
+    public Mono<OrderDtos.OrderResponse> markOngoing(String requestedId, String sellerId) {
+        return resolve(requestedId).flatMap(orderId ->
+            repo.findAndTransition(orderId, Party.SELLER, sellerId, Set.of(Status.STARTED), Status.ONGOING)
+                    .flatMap(this::recorded)
+                    .switchIfEmpty(rejectedTransition(orderId, Party.SELLER, sellerId, "Order must be in STARTED status"))
+                    .map(OrderMapper::toResponse));
+    }
+
+    // Buyer confirms delivery — ONGOING -> DELIVERED
+    public Mono<OrderDtos.OrderResponse> markDelivered(String requestedId, String buyerId) {
+        return resolve(requestedId).flatMap(orderId ->
+            repo.findAndTransition(orderId, Party.BUYER, buyerId, Set.of(Status.ONGOING), Status.DELIVERED)
+                    .flatMap(this::recorded)
+                    .switchIfEmpty(rejectedTransition(orderId, Party.BUYER, buyerId, "Order must be in ONGOING status"))
+                    .flatMap(saved -> userServiceClient.creditSeller(saved.getSellerId(), saved.getTotalPrice())
+                        .thenReturn(saved))
+                    .map(OrderMapper::toResponse));
+    }
+
+    // Cancel order — buyer or seller, refunds money if already paid
+    public Mono<OrderDtos.OrderResponse> cancelOrder(String requestedId, String userId) {
+        return resolve(requestedId).flatMap(orderId ->
+            repo.findAndTransition(orderId, Party.BUYER_OR_SELLER, userId, CANCELLABLE, Status.CANCELLED)
+                    .flatMap(cancelled -> recorded(cancelled).flatMap(saved -> {
+                        // A refund is due only if the order had been paid for
+                        if (!PAID.contains(cancelled.from())) {
+                            return Mono.just(saved);
+                        }
+                        return userServiceClient.refundBuyer(saved.getBuyerId(), saved.getTotalPrice())
+                            .then(productServiceClient.adjustStock(saved.getProductId(), saved.getQuantity()))
+                            .thenReturn(saved);
+                    }))
+                    .switchIfEmpty(rejectedTransition(orderId, Party.BUYER_OR_SELLER, userId,
+                        "Cannot cancel a delivered or already cancelled order"))
+                    .map(OrderMapper::toResponse));
+    }
+
+    // Delete from cart (ADDED only)
+    public Mono<Void> deleteOrder(String requestedId, String buyerId) {
+        return resolve(requestedId).flatMap(orderId ->
+            repo.deleteByOrderIdAndBuyerIdAndStatus(orderId, buyerId, Status.ADDED)
+                    .switchIfEmpty(rejectedTransition(orderId, Party.BUYER, buyerId, "Can only delete cart items"))
+                    .flatMap(sellerStats::recordRemoved));
+    }
+
+    // Reorder — restore a DELIVERED/CANCELLED order to ADDED with new quantity
+    public Mono<OrderDtos.OrderResponse> reorder(String requestedId, String buyerId, int quantity) {
+        return resolve(requestedId).flatMap(orderId ->
+            findAndCheckBuyer(orderId, buyerId)
+                    .flatMap(order -> {
+                        if (order.getStatus() != Status.DELIVERED && order.getStatus() != Status.CANCELLED) {
+                            return Mono.error(new IllegalStateException("Can only reorder delivered or cancelled orders"));
+                        }
+                        return productServiceClient.getProduct(order.getProductId()).flatMap(product -> {
+                            double price = ((Number) product.get(PRODUCT_PRICE_KEY)).doubleValue();
+                            return repo.findAndReprice(orderId, buyerId, FINISHED, quantity, price * quantity)
+                                .flatMap(this::recorded)
+                                .switchIfEmpty(rejectedTransition(orderId, Party.BUYER, buyerId,
+                                    "Can only reorder delivered or cancelled orders"));
+                        });
+                    })
+                    .map(OrderMapper::toResponse));
+    }
+
+    // --- Helpers ---
+
+    // Links and clients still holding an order's ObjectId keep working after the id migration
+    private Mono<String> resolve(String orderId) {
+        String migrated = OrderIds.migratedId(orderId);
+        if (migrated == null) {
+            return Mono.just(orderId);
+        }
+        return repo.existsById(orderId).map(legacy -> legacy ? orderId : migrated);
+    }
+
+    private Mono<Order> findById(String orderId) {
+        return repo.findById(orderId)
+                .switchIfEmpty(Mono.error(() -> new OrderNotFoundException(orderId)));
+    }
+
+    private Mono<Order> findAndCheckBuyer(String orderId, String buyerId) {
+        return findById(orderId).flatMap(order -> order.getBuyerId().equals(buyerId)
+                ? Mono.just(order)
+                : Mono.error(new OrderAccessDeniedException("Not authorized to access this order")));
+    }
+
+    // Records an applied transition in the seller's statistics and continues with the updated order
+    private Mono<Order> recorded(Transition transition) {
+        return sellerStats.recordTransition(transition).thenReturn(transition.order());
+    }
+
+    // Explains why a conditional transition matched nothing, as in OrderService
+    private Mono<Order> rejectedTransition(String orderId, Party party, String userId, String statusMessage) {
+        return findById(orderId).flatMap(order -> {
+            boolean allowed = switch (party) {
+                case BUYER -> order.getBuyerId().equals(userId);
+                case SELLER -> order.getSellerId().equals(userId);
+                case BUYER_OR_SELLER -> order.getBuyerId().equals(userId) || order.getSellerId().equals(userId);
+            };
+            if (!allowed) {
+                return Mono.error(new OrderAccessDeniedException(party == Party.BUYER_OR_SELLER
+                    ? "Not authorized to cancel this order"
+                    : "Not authorized to access this order"));
+            }
+            return Mono.error(new IllegalStateException(statusMessage));
+        });
+    }
+
+    private static Mono<Order> requireStatus(Order order, Status status, String message) {
+        return order.getStatus() == status ? Mono.just(order) : Mono.error(new IllegalStateException(message));
+    }
+}
@@ -0,0 +1,60 @@
+package service.order.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import service.order.dtos.OrderDtos;
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.Status;
+import service.order.mongo_repo.OrderTransitions.Transition;
+import service.order.mongo_repo.ReactiveSellerStatsRepository;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Non-blocking implementation of {@link SellerStatsService}, used by the "reactive" profile.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveSellerStatsService {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveSellerStatsService.class);
+
+    private final ReactiveSellerStatsRepository repo;
+
+    @Autowired
+    public ReactiveSellerStatsService(ReactiveSellerStatsRepository repo) {
+        this.repo = repo;
+    }
+
+    public Mono<Void> recordCreated(Order order) {
+        return record(order, null, order.getStatus());
+    }
+
+    public Mono<Void> recordTransition(Transition transition) {
+        return record(transition.order(), transition.from(), transition.order().getStatus());
+    }
+
+    public Mono<Void> recordRemoved(Order order) {
+        return record(order, order.getStatus(), null);
+    }
+
+    public Mono<OrderDtos.SellerStatsResponse> getStats(String sellerId) {
+        return repo.findById(sellerId)
+                .defaultIfEmpty(new SellerStats())
+                .map(stats -> OrderMapper.toStatsResponse(stats, LocalDate.now(ZoneOffset.UTC)));
+    }
+
+    private Mono<Void> record(Order order, Status from, Status to) {
+        return repo.recordTransition(order, from, to)
+                .onErrorResume(e -> {
+                    // The order change itself is already stored; failing the request now would invite a retry
+                    log.error("Failed to update seller stats for order {} ({} -> {})", order.getOrderId(), from, to, e);
+                    return Mono.empty();
+                });
+    }
+}
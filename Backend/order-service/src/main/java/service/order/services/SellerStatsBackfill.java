@@ -0,0 +1,160 @@
+package service.order.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.StartupTask;
+import service.order.models.Status;
+import service.order.mongo_repo.OrderRepository;
+import service.order.mongo_repo.SellerStatsRepository;
+import service.order.mongo_repo.StartupTaskRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the seller statistics from the orders that existed before they were maintained
+ * incrementally by {@link SellerStatsService}. The pass runs once, tracked by a
+ * {@link StartupTask}: one instance claims it, merges each batch's totals into the statistics with
+ * $inc, so whatever live updates already recorded is kept, and records how far it got, so a
+ * restarted or replacing instance resumes after the last merged batch.
+ *
+ * <p>Only orders last changed before the first run started are counted; every later change was
+ * recorded live. An older order changed during that first startup is the one case neither covers
+ * exactly.
+ */
+@Service
+@Profile("!reactive")
+public class SellerStatsBackfill {
+    private static final Logger log = LoggerFactory.getLogger(SellerStatsBackfill.class);
+    private static final String TASK = "seller-stats-backfill";
+    private static final Duration LEASE = Duration.ofMinutes(5);
+    private static final int DAYS_KEPT = 30;
+    private static final Sort BY_ID = Sort.by("orderId");
+
+    private final OrderRepository orderRepo;
+    private final SellerStatsRepository statsRepo;
+    private final StartupTaskRepository taskRepo;
+    private final boolean enabled;
+    private final int batchSize;
+    // Taken before the web server accepts requests, so no change before it was recorded live
+    private final Instant startedAt = Instant.now();
+
+    @Autowired
+    public SellerStatsBackfill(OrderRepository orderRepo,
+                               SellerStatsRepository statsRepo,
+                               StartupTaskRepository taskRepo,
+                               @Value("${order.seller-stats.backfill.enabled:true}") boolean enabled,
+                               @Value("${order.seller-stats.backfill.batch-size:500}") int batchSize) {
+        this.orderRepo = orderRepo;
+        this.statsRepo = statsRepo;
+        this.taskRepo = taskRepo;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            StartupTask task = taskRepo.claim(TASK, Instant.now(), lease(), startedAt);
+            if (task != null) {
+                backfillFrom(task);
+            }
+        } catch (DataAccessException e) {
+            // Not fatal: the claim expires and the next start resumes after the last merged batch
+            log.error("Seller stats backfill failed", e);
+        }
+    }
+
+    private void backfillFrom(StartupTask task) {
+        LocalDate firstDay = LocalDate.now(ZoneOffset.UTC).minusDays(DAYS_KEPT - 1L);
+        Instant claimedUntil = task.getClaimedUntil();
+        String after = task.getResumeAfter() != null ? task.getResumeAfter() : "";
+        long counted = 0;
+        List<Order> batch;
+        do {
+            batch = orderRepo.findByOrderIdGreaterThanAndUpdatedAtLessThan(after, task.getCutoff(),
+                PageRequest.of(0, batchSize, BY_ID));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<String, SellerStats> bySeller = new HashMap<>();
+            for (Order order : batch) {
+                add(bySeller.computeIfAbsent(order.getSellerId(), id -> {
+                    SellerStats stats = new SellerStats();
+                    stats.setSellerId(id);
+                    return stats;
+                }), order, firstDay);
+            }
+            bySeller.values().forEach(statsRepo::merge);
+            after = batch.get(batch.size() - 1).getOrderId();
+            counted += batch.size();
+
+            Instant extended = lease();
+            if (!taskRepo.advance(TASK, claimedUntil, after, extended)) {
+                log.warn("Seller stats backfill was taken over by another instance after {} orders", counted);
+                return;
+            }
+            claimedUntil = extended;
+        } while (batch.size() == batchSize);
+
+        if (taskRepo.complete(TASK, claimedUntil, Instant.now())) {
+            log.info("Backfilled seller stats from {} orders", counted);
+        }
+    }
+
+    // Stored with millisecond precision, so truncated to compare equal when read back
+    private static Instant lease() {
+        return Instant.now().plus(LEASE).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    // The totals an order contributes in its current status, matching the increments of its transitions
+    private static void add(SellerStats stats, Order order, LocalDate firstDay) {
+        Status status = order.getStatus();
+        stats.getCounts().merge(status.name(), 1L, Long::sum);
+        if (status == Status.STARTED || status == Status.ONGOING) {
+            stats.setRevenuePending(stats.getRevenuePending() + order.getTotalPrice());
+        }
+        if (status != Status.DELIVERED) {
+            return;
+        }
+        stats.setRevenueDelivered(stats.getRevenueDelivered() + order.getTotalPrice());
+        stats.setUnitsDelivered(stats.getUnitsDelivered() + order.getQuantity());
+
+        SellerStats.ProductSales product = stats.getProducts()
+            .computeIfAbsent(order.getProductId(), id -> new SellerStats.ProductSales());
+        product.setName(order.getProductName());
+        product.setUnits(product.getUnits() + order.getQuantity());
+        product.setRevenue(product.getRevenue() + order.getTotalPrice());
+
+        // A delivered order was last updated when it was delivered
+        if (order.getUpdatedAt() != null) {
+            LocalDate day = LocalDate.ofInstant(order.getUpdatedAt(), ZoneOffset.UTC);
+            if (!day.isBefore(firstDay)) {
+                SellerStats.DailySales sales = stats.getDaily()
+                    .computeIfAbsent(day.toString(), d -> new SellerStats.DailySales());
+                sales.setOrders(sales.getOrders() + 1);
+                sales.setRevenue(sales.getRevenue() + order.getTotalPrice());
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package service.order.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import service.order.dtos.OrderDtos;
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.Status;
+import service.order.mongo_repo.OrderTransitions.Transition;
+import service.order.mongo_repo.SellerStatsRepository;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Per-seller dashboard statistics, updated incrementally as orders change status.
+ */
+@Service
+@Profile("!reactive")
+public class SellerStatsService {
+    private static final Logger log = LoggerFactory.getLogger(SellerStatsService.class);
+
+    private final SellerStatsRepository repo;
+
+    @Autowired
+    public SellerStatsService(SellerStatsRepository repo) {
+        this.repo = repo;
+    }
+
+    public void recordCreated(Order order) {
+        record(order, null, order.getStatus());
+    }
+
+    public void recordTransition(Transition transition) {
+        record(transition.order(), transition.from(), transition.order().getStatus());
+    }
+
+    public void recordRemoved(Order order) {
+        record(order, order.getStatus(), null);
+    }
+
+    // GET /api/orders/seller-stats — one read by seller id
+    public OrderDtos.SellerStatsResponse getStats(String sellerId) {
+        SellerStats stats = repo.findById(sellerId).orElseGet(SellerStats::new);
+        return OrderMapper.toStatsResponse(stats, LocalDate.now(ZoneOffset.UTC));
+    }
+
+    private void record(Order order, Status from, Status to) {
+        try {
+            repo.recordTransition(order, from, to);
+        } catch (DataAccessException e) {
+            // The order change itself is already stored; failing the request now would invite a retry
+            log.error("Failed to update seller stats for order {} ({} -> {})", order.getOrderId(), from, to, e);
+        }
+    }
+}
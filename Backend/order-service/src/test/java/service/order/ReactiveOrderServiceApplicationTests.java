@@ -0,0 +1,22 @@
+package service.order;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Smoke test for the "reactive" profile: the WebFlux variant of the service must start from the
+ * same configuration as the default one.
+ */
+@SpringBootTest
+@ActiveProfiles("reactive")
+@TestPropertySource(locations = "classpath:application-test.properties")
+class ReactiveOrderServiceApplicationTests {
+
+	@Test
+	void contextLoads() {
+		// Context successfully loaded if no exception is thrown
+	}
+
+}
@@ -0,0 +1,166 @@
+package service.order.mongo_repo;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Update;
+import service.order.models.Order;
+import service.order.models.SellerStats;
+import service.order.models.Status;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: Seller Stats Increment Tests
+ * Tests for the $inc updates that keep seller statistics in step with order status changes
+ */
+class StatsIncrementsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    private static Order order() {
+        Order order = new Order();
+        order.setSellerId("s1");
+        order.setProductId("p1");
+        order.setProductName("Lamp");
+        order.setQuantity(2);
+        order.setTotalPrice(50.0);
+        return order;
+    }
+
+    private static Document inc(Update update) {
+        return (Document) update.getUpdateObject().get("$inc");
+    }
+
+    @Test
+    void testOf_SameStatus_ShouldBeNoOp() {
+        assertNull(StatsIncrements.of(order(), Status.ONGOING, Status.ONGOING, TODAY));
+        assertNull(StatsIncrements.of(order(), null, null, TODAY));
+    }
+
+    @Test
+    void testOf_Created_ShouldOnlyCount() {
+        Document inc = inc(StatsIncrements.of(order(), null, Status.ADDED, TODAY));
+
+        assertEquals(1, inc.get("counts.ADDED"));
+        assertFalse(inc.containsKey("revenuePending"));
+    }
+
+    @Test
+    void testOf_Placed_ShouldAddPendingRevenue() {
+        Document inc = inc(StatsIncrements.of(order(), Status.ADDED, Status.STARTED, TODAY));
+
+        assertEquals(-1, inc.get("counts.ADDED"));
+        assertEquals(1, inc.get("counts.STARTED"));
+        assertEquals(50.0, inc.get("revenuePending"));
+    }
+
+    @Test
+    void testOf_Confirmed_ShouldKeepPendingRevenue() {
+        Document inc = inc(StatsIncrements.of(order(), Status.STARTED, Status.ONGOING, TODAY));
+
+        assertEquals(-1, inc.get("counts.STARTED"));
+        assertEquals(1, inc.get("counts.ONGOING"));
+        assertFalse(inc.containsKey("revenuePending"));
+    }
+
+    @Test
+    void testOf_Delivered_ShouldMovePendingToDeliveredRevenue() {
+        Update update = StatsIncrements.of(order(), Status.ONGOING, Status.DELIVERED, TODAY);
+        Document inc = inc(update);
+
+        assertEquals(-50.0, inc.get("revenuePending"));
+        assertEquals(50.0, inc.get("revenueDelivered"));
+        assertEquals(2, inc.get("unitsDelivered"));
+        assertEquals(1, inc.get("daily.2026-03-15.orders"));
+        assertEquals(50.0, inc.get("daily.2026-03-15.revenue"));
+        assertEquals(2, inc.get("products.p1.units"));
+        assertEquals(50.0, inc.get("products.p1.revenue"));
+        assertEquals("Lamp", ((Document) update.getUpdateObject().get("$set")).get("products.p1.name"));
+        assertFalse(update.getUpdateObject().containsKey("$unset"));
+    }
+
+    @Test
+    void testOf_CancelledAfterPayment_ShouldRemovePendingRevenue() {
+        Document inc = inc(StatsIncrements.of(order(), Status.STARTED, Status.CANCELLED, TODAY));
+
+        assertEquals(-50.0, inc.get("revenuePending"));
+        assertFalse(inc.containsKey("revenueDelivered"));
+    }
+
+    @Test
+    void testOf_CancelledFromCart_ShouldNotTouchRevenue() {
+        Document inc = inc(StatsIncrements.of(order(), Status.ADDED, Status.CANCELLED, TODAY));
+
+        assertFalse(inc.containsKey("revenuePending"));
+        assertEquals(1, inc.get("counts.CANCELLED"));
+    }
+
+    @Test
+    void testOf_Reordered_ShouldKeepDeliveredRevenue() {
+        Document inc = inc(StatsIncrements.of(order(), Status.DELIVERED, Status.ADDED, TODAY));
+
+        assertEquals(-1, inc.get("counts.DELIVERED"));
+        assertEquals(1, inc.get("counts.ADDED"));
+        assertFalse(inc.containsKey("revenueDelivered"));
+    }
+
+    @Test
+    void testOf_RemovedFromCart_ShouldOnlyUncount() {
+        Document inc = inc(StatsIncrements.of(order(), Status.ADDED, null, TODAY));
+
+        assertEquals(-1, inc.get("counts.ADDED"));
+        assertEquals(1, inc.size());
+    }
+
+    @Test
+    void testPrune_ShouldDropEveryBucketOlderThanTheWindow() {
+        SellerStats stats = new SellerStats();
+        stats.getDaily().put("2025-12-01", new SellerStats.DailySales());
+        stats.getDaily().put("2026-02-13", new SellerStats.DailySales()); // 31 days back
+        stats.getDaily().put("2026-02-14", new SellerStats.DailySales()); // oldest day kept
+        stats.getDaily().put("2026-03-15", new SellerStats.DailySales());
+
+        Document unset = (Document) StatsIncrements.prune(stats, TODAY).getUpdateObject().get("$unset");
+
+        assertEquals(2, unset.size());
+        assertTrue(unset.containsKey("daily.2025-12-01"));
+        assertTrue(unset.containsKey("daily.2026-02-13"));
+    }
+
+    @Test
+    void testPrune_NothingStale_ShouldBeNull() {
+        SellerStats stats = new SellerStats();
+        stats.getDaily().put("2026-03-01", new SellerStats.DailySales());
+
+        assertNull(StatsIncrements.prune(stats, TODAY));
+    }
+
+    @Test
+    void testMerge_ShouldIncrementEveryTotal() {
+        SellerStats totals = new SellerStats();
+        totals.getCounts().put("DELIVERED", 3L);
+        totals.setRevenueDelivered(120.0);
+        totals.setUnitsDelivered(6);
+        SellerStats.DailySales day = new SellerStats.DailySales();
+        day.setOrders(1);
+        day.setRevenue(40.0);
+        totals.getDaily().put("2026-03-14", day);
+        SellerStats.ProductSales product = new SellerStats.ProductSales();
+        product.setName("Lamp");
+        product.setUnits(6);
+        product.setRevenue(120.0);
+        totals.getProducts().put("p1", product);
+
+        Update update = StatsIncrements.merge(totals);
+        Document inc = inc(update);
+
+        assertEquals(3L, inc.get("counts.DELIVERED"));
+        assertEquals(120.0, inc.get("revenueDelivered"));
+        assertEquals(6L, inc.get("unitsDelivered"));
+        assertEquals(1L, inc.get("daily.2026-03-14.orders"));
+        assertEquals(6L, inc.get("products.p1.units"));
+        assertEquals("Lamp", ((Document) update.getUpdateObject().get("$set")).get("products.p1.name"));
+    }
+}
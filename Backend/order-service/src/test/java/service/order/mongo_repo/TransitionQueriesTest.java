@@ -0,0 +1,107 @@
+package service.order.mongo_repo;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import service.order.models.Order;
+import service.order.models.Status;
+import service.order.mongo_repo.OrderTransitions.Party;
+import service.order.mongo_repo.OrderTransitions.Transition;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: Transition Query Tests
+ * Tests for the ownership and status conditions of order status changes
+ */
+class TransitionQueriesTest {
+
+    private static final Set<Status> CART = Set.of(Status.ADDED);
+
+    // The top-level $and conditions of a query, with nested $and lists flattened into one document
+    private static Document conditions(Query query) {
+        Document flat = new Document();
+        flatten(query.getQueryObject(), flat);
+        return flat;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void flatten(Document document, Document into) {
+        document.forEach((key, value) -> {
+            if ("$and".equals(key)) {
+                ((List<Document>) value).forEach(part -> flatten(part, into));
+            } else {
+                into.put(key, value);
+            }
+        });
+    }
+
+    @Test
+    void testMatch_Buyer_ShouldRequireBuyerAndStatus() {
+        Document query = conditions(TransitionQueries.match("o1", Party.BUYER, "u1", CART));
+
+        assertEquals("o1", query.get("_id"));
+        assertEquals("u1", query.get("buyerId"));
+        assertFalse(query.containsKey("sellerId"));
+        assertEquals(new Document("$in", CART), query.get("status"));
+    }
+
+    @Test
+    void testMatch_Seller_ShouldRequireSeller() {
+        Document query = conditions(TransitionQueries.match("o1", Party.SELLER, "u1", Set.of(Status.STARTED)));
+
+        assertEquals("u1", query.get("sellerId"));
+        assertFalse(query.containsKey("buyerId"));
+    }
+
+    @Test
+    void testMatch_BuyerOrSeller_ShouldAcceptEither() {
+        Document query = conditions(TransitionQueries.match("o1", Party.BUYER_OR_SELLER, "u1", CART));
+
+        assertEquals(List.of(new Document("buyerId", "u1"), new Document("sellerId", "u1")), query.get("$or"));
+        assertFalse(query.containsKey("buyerId"));
+        assertFalse(query.containsKey("sellerId"));
+    }
+
+    @Test
+    void testMatchUnchanged_ShouldRequireTheCheckedQuantityAndTotal() {
+        Document query = conditions(TransitionQueries.matchUnchanged("o1", "u1", 3, 29.97));
+
+        assertEquals("u1", query.get("buyerId"));
+        assertEquals(new Document("$in", CART), query.get("status"));
+        assertEquals(3, query.get("quantity"));
+        assertEquals(29.97, query.get("totalPrice"));
+    }
+
+    @Test
+    void testApplied_ShouldReturnTheStatusLeft() {
+        Order previous = new Order();
+        previous.setStatus(Status.ONGOING);
+        Instant now = Instant.now();
+
+        Transition transition = TransitionQueries.applied(previous, Status.CANCELLED, now);
+
+        assertEquals(Status.ONGOING, transition.from());
+        assertEquals(Status.CANCELLED, transition.order().getStatus());
+        assertEquals(now, transition.order().getUpdatedAt());
+    }
+
+    @Test
+    void testRepriced_ShouldPutTheOrderBackInTheCart() {
+        Order previous = new Order();
+        previous.setStatus(Status.DELIVERED);
+        previous.setQuantity(1);
+        previous.setTotalPrice(10);
+
+        Transition transition = TransitionQueries.repriced(previous, 4, 40, Instant.now());
+
+        assertEquals(Status.DELIVERED, transition.from());
+        assertEquals(Status.ADDED, transition.order().getStatus());
+        assertEquals(4, transition.order().getQuantity());
+        assertEquals(40, transition.order().getTotalPrice());
+    }
+}
@@ -0,0 +1,78 @@
+package service.order.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import service.order.dtos.OrderDtos;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: Export Format Tests
+ * Tests for the line formats of streamed seller order exports
+ */
+class ExportFormatTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static OrderDtos.OrderResponse order(String productName) {
+        return new OrderDtos.OrderResponse("01J0000000000000000000000A", "b1", "s1", "p1", productName,
+            2, 19.5, "DELIVERED", "2026-03-14T10:00:00Z", null);
+    }
+
+    @Test
+    void testFromKey_ShouldIgnoreCase() {
+        assertEquals(ExportFormat.CSV, ExportFormat.fromKey("CSV"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromKey("ndjson"));
+    }
+
+    @Test
+    void testFromKey_Unknown_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromKey("xml"));
+    }
+
+    @Test
+    void testNdjson_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        String line = ExportFormat.NDJSON.line(order("Desk lamp"), objectMapper);
+
+        assertTrue(line.endsWith("\n"));
+        assertEquals(1, line.split("\n", -1).length - 1, "Exactly one line break");
+        JsonNode json = objectMapper.readTree(line);
+        assertEquals("01J0000000000000000000000A", json.get("id").asText());
+        assertEquals("Desk lamp", json.get("productName").asText());
+        assertEquals(19.5, json.get("totalPrice").asDouble());
+        assertEquals("", ExportFormat.NDJSON.header());
+    }
+
+    @Test
+    void testNdjson_LineBreakInName_ShouldStayOnOneLine() {
+        String line = ExportFormat.NDJSON.line(order("Desk\nlamp"), objectMapper);
+
+        assertEquals(line.length() - 1, line.indexOf('\n'));
+    }
+
+    @Test
+    void testCsv_ShouldMatchTheHeaderColumns() {
+        String header = ExportFormat.CSV.header();
+        String line = ExportFormat.CSV.line(order("Desk lamp"), objectMapper);
+
+        assertEquals("01J0000000000000000000000A,b1,s1,p1,Desk lamp,2,19.5,DELIVERED,2026-03-14T10:00:00Z,\n", line);
+        assertEquals(header.split(",").length, line.split(",", -1).length);
+    }
+
+    @Test
+    void testCsv_ShouldQuoteSeparatorsQuotesAndLineBreaks() {
+        assertTrue(ExportFormat.CSV.line(order("Lamp, large"), objectMapper).contains(",\"Lamp, large\","));
+        assertTrue(ExportFormat.CSV.line(order("12\" screen"), objectMapper).contains(",\"12\"\" screen\","));
+        assertTrue(ExportFormat.CSV.line(order("Desk\nlamp"), objectMapper).contains(",\"Desk\nlamp\","));
+    }
+
+    @Test
+    void testCsv_ShouldNeutraliseFormulas() {
+        assertTrue(ExportFormat.CSV.line(order("=HYPERLINK(\"x\")"), objectMapper)
+            .contains(",\"'=HYPERLINK(\"\"x\"\")\","));
+        assertTrue(ExportFormat.CSV.line(order("+1"), objectMapper).contains(",'+1,"));
+        assertTrue(ExportFormat.CSV.line(order("-1"), objectMapper).contains(",'-1,"));
+        assertTrue(ExportFormat.CSV.line(order("@SUM(A1)"), objectMapper).contains(",'@SUM(A1),"));
+    }
+}
@@ -0,0 +1,142 @@
+package service.order.services;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Range;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AUDIT TEST: Order Id Tests
+ * Tests for the ordering of generated and migrated order ids and the history cursors built on them
+ */
+class OrderIdsTest {
+
+    private static final String ULID_PATTERN = "[0-9A-HJKMNP-TV-Z]{26}";
+
+    @Test
+    void testNext_ShouldIncreaseWithinTheSameMillisecond() {
+        // Far more ids than fit in one millisecond's worth of calls, so many share a timestamp
+        String previous = OrderIds.next();
+        for (int i = 0; i < 100_000; i++) {
+            String id = OrderIds.next();
+            assertTrue(id.compareTo(previous) > 0, id + " should sort after " + previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void testNext_ShouldBeAUlid() {
+        assertTrue(OrderIds.next().matches(ULID_PATTERN));
+    }
+
+    @Test
+    void testFromObjectId_ShouldBeDeterministic() {
+        ObjectId objectId = new ObjectId();
+        String id = OrderIds.fromObjectId(objectId);
+
+        assertEquals(id, OrderIds.fromObjectId(new ObjectId(objectId.toHexString())));
+        assertTrue(id.matches(ULID_PATTERN));
+    }
+
+    @Test
+    void testFromObjectId_ShouldKeepObjectIdOrder() {
+        List<ObjectId> objectIds = new ArrayList<>();
+        objectIds.add(new ObjectId(new Date(1_500_000_000_000L)));
+        objectIds.add(new ObjectId(new Date(1_600_000_000_000L)));
+        for (int i = 0; i < 100; i++) {
+            objectIds.add(new ObjectId());
+        }
+        objectIds.sort(null);
+
+        for (int i = 1; i < objectIds.size(); i++) {
+            String earlier = OrderIds.fromObjectId(objectIds.get(i - 1));
+            String later = OrderIds.fromObjectId(objectIds.get(i));
+            assertTrue(later.compareTo(earlier) > 0, later + " should sort after " + earlier);
+        }
+    }
+
+    @Test
+    void testFromObjectId_ShouldSortBeforeIdsMadeLater() {
+        String migrated = OrderIds.fromObjectId(new ObjectId(new Date(System.currentTimeMillis() - 60_000)));
+        assertTrue(migrated.compareTo(OrderIds.next()) < 0);
+    }
+
+    @Test
+    void testMigratedId_ShouldMapOnlyLegacyIds() {
+        ObjectId objectId = new ObjectId();
+
+        assertEquals(OrderIds.fromObjectId(objectId), OrderIds.migratedId(objectId.toHexString()));
+        assertNull(OrderIds.migratedId(OrderIds.next()));
+    }
+
+    @Test
+    void testCursor_WithoutBefore_ShouldStartAboveEveryId() {
+        assertTrue(OrderIds.cursor(null).compareTo(OrderIds.next()) > 0);
+        assertTrue(OrderIds.cursor(" ").compareTo(OrderIds.next()) > 0);
+        assertEquals("01ARZ3NDEKTSV4RRFFQ69G5FAV", OrderIds.cursor("01ARZ3NDEKTSV4RRFFQ69G5FAV"));
+    }
+
+    @Test
+    void testNewestFirst_ShouldClampTheLimit() {
+        assertTrue(OrderIds.newestFirst(null, 100).isUnpaged());
+        assertEquals(100, OrderIds.newestFirst(5000, 100).getPageSize());
+        assertEquals(1, OrderIds.newestFirst(0, 100).getPageSize());
+
+        Pageable page = OrderIds.newestFirst(20, 100);
+        assertEquals(20, page.getPageSize());
+        assertTrue(page.getSort().getOrderFor("orderId").isDescending());
+    }
+
+    @Test
+    void testCreatedBetween_ShouldIncludeBothDays() {
+        Range<String> ids = OrderIds.createdBetween(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 2));
+        String firstOfFrom = idAt(LocalDate.of(2026, 3, 1), 0);
+        String lastOfTo = idAt(LocalDate.of(2026, 3, 2), 86_399_999);
+        String firstAfterTo = idAt(LocalDate.of(2026, 3, 3), 0);
+        String lastBeforeFrom = idAt(LocalDate.of(2026, 2, 28), 86_399_999);
+
+        assertTrue(ids.getLowerBound().isInclusive());
+        assertFalse(ids.getUpperBound().isInclusive());
+        assertTrue(ids.contains(firstOfFrom));
+        assertTrue(ids.contains(lastOfTo));
+        assertFalse(ids.contains(firstAfterTo));
+        assertFalse(ids.contains(lastBeforeFrom));
+    }
+
+    @Test
+    void testCreatedBetween_OpenEnds_ShouldCoverEveryId() {
+        Range<String> ids = OrderIds.createdBetween(null, null);
+
+        assertTrue(ids.contains(OrderIds.fromObjectId(new ObjectId(new Date(0)))));
+        assertTrue(ids.contains(OrderIds.next()));
+    }
+
+    @Test
+    void testCreatedBetween_SameDay_ShouldBeOneDay() {
+        LocalDate day = LocalDate.of(2026, 3, 1);
+        Range<String> ids = OrderIds.createdBetween(day, day);
+
+        assertTrue(ids.contains(idAt(day, 43_200_000)));
+        assertFalse(ids.contains(idAt(day.plusDays(1), 0)));
+    }
+
+    @Test
+    void testCreatedBetween_Inverted_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+            () -> OrderIds.createdBetween(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 1)));
+    }
+
+    // An id as migrated from an ObjectId made that many milliseconds into the day, truncated to the second
+    private static String idAt(LocalDate day, long millisIntoDay) {
+        long millis = day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() + millisIntoDay;
+        return OrderIds.fromObjectId(new ObjectId(new Date(millis)));
+    }
+}
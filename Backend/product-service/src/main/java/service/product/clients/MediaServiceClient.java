@@ -4,9 +4,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 public class MediaServiceClient {
     private static final Logger logger = LoggerFactory.getLogger(MediaServiceClient.class);
@@ -30,5 +39,43 @@ public class MediaServiceClient {
             logger.error("Failed to delete media for product: {}. Error: {}", productId, e.getMessage());
         }
     }
-}
 
+    /**
+     * Deletes the media of many products with one request. Failures are logged, matching
+     * {@link #deleteAllMediaByProductId(String)}, so a media outage does not block product deletion.
+     */
+    public void deleteAllMediaByProductIds(List<String> productIds) {
+        try {
+            String url = mediaServiceUrl + "/api/media/internal/products/delete";
+            restTemplate.postForObject(url, Map.of("productIds", productIds), Void.class);
+            logger.info("Successfully deleted all media for {} products", productIds.size());
+        } catch (Exception e) {
+            logger.error("Failed to delete media for {} products. Error: {}", productIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Download URLs of the media of many products, fetched with one request.
+     * Returns an empty map if media-service is unavailable so listings still render.
+     */
+    public Map<String, List<String>> getMediaUrlsByProductIds(Collection<String> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            String url = mediaServiceUrl + "/api/media/by-products";
+            Map<String, List<Map<String, Object>>> body = restTemplate.exchange(
+                url, HttpMethod.POST, new HttpEntity<>(Map.of("productIds", productIds)),
+                new ParameterizedTypeReference<Map<String, List<Map<String, Object>>>>() {}).getBody();
+            Map<String, List<String>> urls = new HashMap<>();
+            if (body != null) {
+                body.forEach((productId, media) -> urls.put(productId,
+                    media.stream().map(m -> (String) m.get("downloadUrl")).toList()));
+            }
+            return urls;
+        } catch (RestClientException e) {
+            logger.error("Failed to fetch media for {} products. Error: {}", productIds.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package service.product.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Pool for cascade media deletes. Its size caps how many bulk-delete requests
+     * product-service sends to media-service at once, across all callers.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService mediaDeleteExecutor(@Value("${product.cascade-delete.parallelism:4}") int parallelism) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "media-delete-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+}
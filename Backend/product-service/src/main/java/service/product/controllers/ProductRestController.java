@@ -3,30 +3,76 @@ package service.product.controllers;
 import jakarta.annotation.security.PermitAll;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import service.product.dtos.ProductDtos.*;
+import service.product.services.CatalogSnapshotService;
+import service.product.services.CatalogSnapshotService.CatalogSnapshot;
+import service.product.services.ProductImportService;
 import service.product.services.ProductService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
 @RequestMapping("/")
 public class ProductRestController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
+
     private final ProductService service;
+    private final CatalogSnapshotService catalogSnapshot;
+    private final ProductImportService importService;
 
     @Autowired
-    public ProductRestController(ProductService service) {
+    public ProductRestController(ProductService service, CatalogSnapshotService catalogSnapshot,
+                                 ProductImportService importService) {
         this.service = service;
+        this.catalogSnapshot = catalogSnapshot;
+        this.importService = importService;
     }
 
     // Public - accessible without authentication
+    // Served from the pre-serialized catalog snapshot, gzipped when the client accepts it
     @PermitAll
     @GetMapping
-    public List<ProductResponse> list() {
-        return service.publicList();
+    public ResponseEntity<byte[]> list(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(catalogSnapshot.current(), acceptEncoding);
+    }
+
+    // Public - products together with their media URLs, from the catalog snapshot as well
+    @PermitAll
+    @GetMapping("/with-media")
+    public ResponseEntity<byte[]> listWithMedia(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return serve(catalogSnapshot.withMedia(), acceptEncoding);
+    }
+
+    private static ResponseEntity<byte[]> serve(CatalogSnapshot snapshot, String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+
+        byte[] body = snapshot.json();
+        if (snapshot.gzip() != null && acceptsGzip(acceptEncoding)) {
+            body = snapshot.gzip();
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.setContentLength(body.length);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    // Public - batch lookup, e.g. GET /?ids=a,b,c
+    @PermitAll
+    @GetMapping(params = "ids")
+    public List<ProductSummary> listByIds(@RequestParam List<String> ids) {
+        return service.getSummaries(ids);
     }
 
     // Public - accessible without authentication
@@ -44,6 +90,12 @@ public class ProductRestController {
         return service.listByUserId(userId);
     }
 
+    @PreAuthorize("isAuthenticated()")
+    @GetMapping("/my-products/with-media")
+    public List<ProductWithMediaResponse> getMyProductsWithMedia(Authentication auth) {
+        return service.listByUserIdWithMedia(auth.getName());
+    }
+
     @PreAuthorize("isAuthenticated()")
     @PostMapping
     public ResponseEntity<ProductResponse> create(@Valid @RequestBody CreateProductRequest req,
@@ -52,6 +104,18 @@ public class ProductRestController {
         return ResponseEntity.status(201).body(service.create(req, userId, auth));
     }
 
+    // Bulk import: body is streamed row by row (NDJSON or CSV with a header line)
+    @PreAuthorize("isAuthenticated()")
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ImportResponse importProducts(InputStream body,
+                                         @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         Authentication auth) throws IOException {
+        ProductImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+            ? ProductImportService.Format.CSV
+            : ProductImportService.Format.NDJSON;
+        return importService.importProducts(body, format, auth.getName(), auth);
+    }
+
     @PreAuthorize("isAuthenticated()")
     @PutMapping("/{id}")
     public ProductResponse update(@PathVariable String id,
@@ -83,5 +147,24 @@ public class ProductRestController {
         return ResponseEntity.noContent().build();
     }
 
+    // Internal endpoint for other services to resolve many products in one round trip
+    @PostMapping("/internal/products/batch")
+    public List<ProductSummary> batchGet(@Valid @RequestBody BatchProductsRequest req) {
+        return service.getSummaries(req.ids());
+    }
+
     public record StockAdjustRequest(int delta) {}
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,8 @@ package service.product.dtos;
 
 import jakarta.validation.constraints.*;
 
+import java.util.List;
+
 public class ProductDtos {
     public record CreateProductRequest(
             @NotBlank(message = "Product name is required")
@@ -57,4 +59,43 @@ public class ProductDtos {
             int quantity,
             String userId
     ) {}
+
+    // Product plus the download URLs of its media, for listing pages
+    public record ProductWithMediaResponse(
+            String id,
+            String name,
+            String description,
+            double price,
+            int quantity,
+            String userId,
+            List<String> mediaUrls
+    ) {}
+
+    // Compact projection for batch lookups (no description)
+    public record ProductSummary(
+            String id,
+            String name,
+            double price,
+            int quantity,
+            String userId
+    ) {}
+
+    public record BatchProductsRequest(
+            @NotEmpty(message = "At least one product id is required")
+            @Size(max = 200, message = "At most 200 product ids can be requested at once")
+            List<String> ids
+    ) {}
+
+    public record ImportRowError(
+            long row,
+            String message
+    ) {}
+
+    // errorsTruncated is set when more rows failed than are listed in errors
+    public record ImportResponse(
+            long imported,
+            long failed,
+            List<ImportRowError> errors,
+            boolean errorsTruncated
+    ) {}
 }
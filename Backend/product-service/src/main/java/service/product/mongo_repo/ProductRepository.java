@@ -2,8 +2,22 @@ package service.product.mongo_repo;
 
 import service.product.models.Product;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductRepository extends MongoRepository<Product, String> {
     List<Product> findByUserId(String userId);
+
+    // Ids only, for cascade deletes
+    @Query(value = "{ 'userId': ?0 }", fields = "{ '_id': 1 }")
+    List<Product> findIdsByUserId(String userId);
+
+    // Single deleteMany
+    long deleteByUserId(String userId);
+
+    // Single $in query, projected to the fields needed by ProductSummary
+    @Query(fields = "{ 'name': 1, 'price': 1, 'quantity': 1, 'userId': 1 }")
+    List<Product> findByIdIn(Collection<String> ids);
 }
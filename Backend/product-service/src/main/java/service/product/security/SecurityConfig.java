@@ -37,7 +37,7 @@ public class SecurityConfig {
             .headers(headers -> headers.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/", "/{id}", "/user/{userId}", "/internal/stock/**").permitAll()
+                .requestMatchers("/", "/{id}", "/with-media", "/user/{userId}", "/internal/stock/**", "/internal/products/batch").permitAll()
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
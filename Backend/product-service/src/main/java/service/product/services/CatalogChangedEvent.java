@@ -0,0 +1,7 @@
+package service.product.services;
+
+/**
+ * Published whenever a write may have changed the public catalog.
+ * Listeners must not assume the change has been committed yet.
+ */
+public record CatalogChangedEvent(String reason) {}
@@ -0,0 +1,165 @@
+package service.product.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the public product list pre-serialized (and optionally pre-gzipped) so
+ * GET / can be answered with a plain byte copy instead of running Jackson per request.
+ * The same is done for the list with media URLs behind GET /with-media, so its
+ * media-service lookups run per rebuild rather than per page load.
+ * Snapshots are rebuilt in the background, debounced after catalog writes; the media
+ * view is also refreshed periodically, since media uploads do not change the catalog.
+ */
+@Service
+public class CatalogSnapshotService {
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final long debounceMs;
+    private final boolean gzipEnabled;
+    private final int gzipMinBytes;
+    private final long mediaRefreshMs;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicReference<CatalogSnapshot> withMedia = new AtomicReference<>();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "catalog-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Autowired
+    public CatalogSnapshotService(ProductService productService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${catalog.snapshot.debounce-ms:500}") long debounceMs,
+                                  @Value("${catalog.snapshot.gzip-enabled:true}") boolean gzipEnabled,
+                                  @Value("${catalog.snapshot.gzip-min-bytes:1024}") int gzipMinBytes,
+                                  @Value("${catalog.snapshot.media-refresh-ms:60000}") long mediaRefreshMs) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.debounceMs = debounceMs;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinBytes = gzipMinBytes;
+        this.mediaRefreshMs = mediaRefreshMs;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::refreshWithMedia, mediaRefreshMs, mediaRefreshMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the latest snapshot, building it synchronously only on the very first call.
+     */
+    public CatalogSnapshot current() {
+        return cached(current, productService::publicList);
+    }
+
+    /**
+     * Returns the latest snapshot of the product list with media URLs, built like {@link #current()}.
+     */
+    public CatalogSnapshot withMedia() {
+        return cached(withMedia, productService::publicListWithMedia);
+    }
+
+    private CatalogSnapshot cached(AtomicReference<CatalogSnapshot> ref, Supplier<List<?>> source) {
+        CatalogSnapshot snapshot = ref.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        CatalogSnapshot built = build(source.get());
+        return ref.compareAndSet(null, built) ? built : ref.get();
+    }
+
+    // After commit, so a rebuild never reads a write that is later rolled back or not yet visible
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        // Writes arriving while a rebuild is pending are coalesced into that rebuild
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            log.debug("Catalog changed ({}), rebuilding snapshot in {} ms", event.reason(), debounceMs);
+            scheduler.schedule(this::refresh, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Rebuilds both snapshots now.
+     */
+    public void refresh() {
+        // Cleared before reading so writes that land during the rebuild schedule another one
+        rebuildScheduled.set(false);
+        rebuild(current, productService::publicList);
+        refreshWithMedia();
+    }
+
+    // Only once the view has been requested, so idle instances do not poll media-service
+    private void refreshWithMedia() {
+        if (withMedia.get() != null) {
+            rebuild(withMedia, productService::publicListWithMedia);
+        }
+    }
+
+    private void rebuild(AtomicReference<CatalogSnapshot> ref, Supplier<List<?>> source) {
+        try {
+            ref.set(build(source.get()));
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild catalog snapshot, keeping previous one: {}", e.getMessage());
+        }
+    }
+
+    private CatalogSnapshot build(List<?> products) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(products);
+            byte[] gzip = gzipEnabled && json.length >= gzipMinBytes ? gzip(json) : null;
+            log.debug("Catalog snapshot built: {} products, {} bytes json, {} bytes gzip",
+                products.size(), json.length, gzip != null ? gzip.length : 0);
+            return new CatalogSnapshot(json, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Serialized catalog bytes. {@code gzip} is null when compression is disabled
+     * or the payload is too small to benefit from it.
+     */
+    public record CatalogSnapshot(byte[] json, byte[] gzip) {}
+}
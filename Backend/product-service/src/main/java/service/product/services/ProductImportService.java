@@ -0,0 +1,280 @@
+package service.product.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import service.product.dtos.ProductDtos.CreateProductRequest;
+import service.product.dtos.ProductDtos.ImportResponse;
+import service.product.dtos.ProductDtos.ImportRowError;
+import service.product.models.Product;
+import service.product.mongo_repo.ProductRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk import of products from NDJSON or CSV.
+ * Rows are read, validated and inserted in fixed-size batches, so memory use
+ * depends on the batch size and error cap, never on the size of the upload.
+ */
+@Service
+public class ProductImportService {
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+    private static final int MAX_LINE_LENGTH = 16 * 1024;
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("name", "price", "quantity");
+
+    public enum Format { NDJSON, CSV }
+
+    private final ProductService productService;
+    private final ProductRepository repo;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public ProductImportService(ProductService productService,
+                                ProductRepository repo,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                @Value("${product.import.batch-size:500}") int batchSize,
+                                @Value("${product.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productService = productService;
+        this.repo = repo;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportResponse importProducts(InputStream body, Format format, String ownerUserId, Authentication auth)
+            throws IOException {
+        productService.checkSellerRole(auth);
+
+        ImportRun run = new ImportRun(ownerUserId);
+        BoundedLineReader reader = new BoundedLineReader(
+            new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+        Map<String, Integer> csvColumns = null;
+        long row = 0;
+        String line;
+        while ((line = reader.next()) != null) {
+            row++;
+            if (reader.lastLineOversized()) {
+                run.fail(row, "Row exceeds maximum length of " + MAX_LINE_LENGTH + " characters");
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && csvColumns == null) {
+                csvColumns = parseCsvHeader(line);
+                continue;
+            }
+            try {
+                CreateProductRequest req = format == Format.CSV ? fromCsv(line, csvColumns) : fromJson(line);
+                run.accept(row, req);
+            } catch (IllegalArgumentException e) {
+                run.fail(row, e.getMessage());
+            }
+        }
+        run.flush();
+
+        if (run.imported > 0) {
+            productService.catalogChanged("import");
+        }
+        log.info("Imported {} products for user {} ({} rows failed)", run.imported, ownerUserId, run.failed);
+        return new ImportResponse(run.imported, run.failed, run.errors, run.failed > run.errors.size());
+    }
+
+    private CreateProductRequest fromJson(String line) {
+        try {
+            return objectMapper.readValue(line, CreateProductRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private CreateProductRequest fromCsv(String line, Map<String, Integer> columns) {
+        List<String> values = parseCsvLine(line);
+        return new CreateProductRequest(
+            column(values, columns, "name"),
+            column(values, columns, "description"),
+            parseNumber(column(values, columns, "price"), "price", Double::parseDouble),
+            parseNumber(column(values, columns, "quantity"), "quantity", Integer::parseInt),
+            null
+        );
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        List<String> names = parseCsvLine(line);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header must contain columns: " + REQUIRED_CSV_COLUMNS);
+            }
+        }
+        return columns;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    private static <T> T parseNumber(String value, String field, Function<String, T> parser) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + ": value is required");
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + ": '" + value + "' is not a number");
+        }
+    }
+
+    /**
+     * Splits one CSV record following RFC 4180 quoting ("" escapes a quote).
+     * Quoted fields spanning several lines are not supported.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    /**
+     * Like BufferedReader.readLine, but never buffers more than MAX_LINE_LENGTH characters;
+     * the rest of an oversized line is skipped and the line is reported as oversized.
+     */
+    private static final class BoundedLineReader {
+        private final BufferedReader reader;
+        private boolean oversized;
+
+        BoundedLineReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        String next() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            oversized = false;
+            int c;
+            while ((c = reader.read()) != -1 && c != '\n') {
+                if (sb.length() >= MAX_LINE_LENGTH) {
+                    oversized = true;
+                } else {
+                    sb.append((char) c);
+                }
+            }
+            if (c == -1 && sb.length() == 0) {
+                return null;
+            }
+            int end = sb.length();
+            if (end > 0 && sb.charAt(end - 1) == '\r') {
+                sb.setLength(end - 1);
+            }
+            return oversized ? "" : sb.toString();
+        }
+
+        boolean lastLineOversized() {
+            return oversized;
+        }
+    }
+
+    /**
+     * Per-request state: the pending batch plus counters and the capped error list.
+     */
+    private class ImportRun {
+        private final String ownerUserId;
+        private final List<Product> batch = new ArrayList<>(batchSize);
+        private final List<Long> batchRows = new ArrayList<>(batchSize);
+        private final List<ImportRowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportRun(String ownerUserId) {
+            this.ownerUserId = ownerUserId;
+        }
+
+        void accept(long row, CreateProductRequest req) {
+            Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(req);
+            if (!violations.isEmpty()) {
+                fail(row, violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+                return;
+            }
+            batch.add(productService.newProduct(req, ownerUserId));
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportRowError(row, message));
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                // insert(Iterable) is a single insertMany round trip
+                repo.insert(batch);
+                imported += batch.size();
+            } catch (RuntimeException e) {
+                log.error("Failed to insert import batch of {} products: {}", batch.size(), e.getMessage());
+                batchRows.forEach(row -> fail(row, "Could not be saved: " + e.getMessage()));
+            }
+            batch.clear();
+            batchRows.clear();
+        }
+    }
+}
@@ -1,7 +1,12 @@
 
 package service.product.services;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -13,30 +18,43 @@ import service.product.models.Product;
 import service.product.mongo_repo.ProductRepository;
 import service.product.clients.MediaServiceClient;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
 @Service
 public class ProductService {
+    private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+    private static final int MAX_BATCH_IDS = 200;
 
     private final ProductRepository repo;
     private final MediaServiceClient mediaServiceClient;
+    private final ApplicationEventPublisher events;
+    private final ExecutorService mediaDeleteExecutor;
+    private final int cascadeDeleteChunkSize;
 
     @Autowired
-    public ProductService(ProductRepository repo, MediaServiceClient mediaServiceClient) {
+    public ProductService(ProductRepository repo, MediaServiceClient mediaServiceClient,
+                          ApplicationEventPublisher events,
+                          @Qualifier("mediaDeleteExecutor") ExecutorService mediaDeleteExecutor,
+                          @Value("${product.cascade-delete.chunk-size:100}") int cascadeDeleteChunkSize) {
         this.repo = repo;
         this.mediaServiceClient = mediaServiceClient;
+        this.events = events;
+        this.mediaDeleteExecutor = mediaDeleteExecutor;
+        this.cascadeDeleteChunkSize = cascadeDeleteChunkSize;
     }
 
     @Transactional
     public ProductResponse create(CreateProductRequest req, String ownerUserId, Authentication auth) {
         checkSellerRole(auth);
-        Product p = new Product();
-        p.setName(s(req.name()));
-        p.setDescription(s(req.description()));
-        p.setPrice(req.price());
-        p.setQuantity(req.quantity());
-        p.setUserId(ownerUserId);
+        Product p = newProduct(req, ownerUserId);
         repo.save(p);
+        catalogChanged("create");
         return toResponse(p);
     }
 
@@ -48,10 +66,51 @@ public class ProductService {
         return repo.findByUserId(userId).stream().map(this::toResponse).toList();
     }
 
+    public List<ProductWithMediaResponse> publicListWithMedia() {
+        return withMedia(repo.findAll());
+    }
+
+    public List<ProductWithMediaResponse> listByUserIdWithMedia(String userId) {
+        return withMedia(repo.findByUserId(userId));
+    }
+
+    // One batched media lookup per MAX_BATCH_IDS products instead of one request per product
+    private List<ProductWithMediaResponse> withMedia(List<Product> products) {
+        Map<String, List<String>> mediaUrls = new HashMap<>();
+        for (int from = 0; from < products.size(); from += MAX_BATCH_IDS) {
+            List<String> ids = products.subList(from, Math.min(from + MAX_BATCH_IDS, products.size())).stream()
+                .map(Product::getId)
+                .toList();
+            mediaUrls.putAll(mediaServiceClient.getMediaUrlsByProductIds(ids));
+        }
+        return products.stream()
+            .map(p -> new ProductWithMediaResponse(p.getId(), p.getName(), p.getDescription(), p.getPrice(),
+                p.getQuantity(), p.getUserId(), mediaUrls.getOrDefault(p.getId(), List.of())))
+            .toList();
+    }
+
     public ProductResponse get(String id) {
         return toResponse(find(id));
     }
 
+    /**
+     * Resolves many products in one query. Unknown ids are left out of the result
+     * and the result order is not tied to the order of the requested ids.
+     */
+    public List<ProductSummary> getSummaries(List<String> ids) {
+        LinkedHashSet<String> unique = new LinkedHashSet<>(ids);
+        unique.removeIf(id -> id == null || id.isBlank());
+        if (unique.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " product ids can be requested at once");
+        }
+        if (unique.isEmpty()) {
+            return List.of();
+        }
+        return repo.findByIdIn(unique).stream()
+            .map(p -> new ProductSummary(p.getId(), p.getName(), p.getPrice(), p.getQuantity(), p.getUserId()))
+            .toList();
+    }
+
     @Transactional
     public ProductResponse update(String id, UpdateProductRequest req, String requesterUserId, Authentication auth) {
         checkSellerRole(auth);
@@ -62,6 +121,7 @@ public class ProductService {
         p.setPrice(req.price());
         p.setQuantity(req.quantity());
         repo.save(p);
+        catalogChanged("update");
         return toResponse(p);
     }
 
@@ -75,18 +135,27 @@ public class ProductService {
         mediaServiceClient.deleteAllMediaByProductId(id);
 
         repo.delete(p);
+        catalogChanged("delete");
     }
 
-    @Transactional
+    /**
+     * Cascade delete for a removed user. Media is deleted in chunks of productIds, with at most
+     * product.cascade-delete.parallelism bulk requests in flight, then products go in one deleteMany.
+     */
     public void deleteAllByUserId(String userId) {
-        List<Product> products = repo.findByUserId(userId);
+        List<String> productIds = repo.findIdsByUserId(userId).stream().map(Product::getId).toList();
 
-        // Delete all media for each product
-        for (Product product : products) {
-            mediaServiceClient.deleteAllMediaByProductId(product.getId());
+        List<CompletableFuture<Void>> mediaDeletes = new ArrayList<>();
+        for (int from = 0; from < productIds.size(); from += cascadeDeleteChunkSize) {
+            List<String> chunk = productIds.subList(from, Math.min(from + cascadeDeleteChunkSize, productIds.size()));
+            mediaDeletes.add(CompletableFuture.runAsync(
+                () -> mediaServiceClient.deleteAllMediaByProductIds(chunk), mediaDeleteExecutor));
         }
+        CompletableFuture.allOf(mediaDeletes.toArray(CompletableFuture[]::new)).join();
 
-        repo.deleteAll(products);
+        long deleted = repo.deleteByUserId(userId);
+        log.info("Deleted {} products for user {}", deleted, userId);
+        catalogChanged("delete-by-user");
     }
 
     /**
@@ -105,6 +174,11 @@ public class ProductService {
         }
         p.setQuantity(newQty);
         repo.save(p);
+        catalogChanged("stock");
+    }
+
+    void catalogChanged(String reason) {
+        events.publishEvent(new CatalogChangedEvent(reason));
     }
 
     private Product find(String id) {
@@ -117,7 +191,18 @@ public class ProductService {
         }
     }
 
-    private void checkSellerRole(Authentication auth) {
+    // Shared with the bulk importer so imported rows are built exactly like single creates
+    Product newProduct(CreateProductRequest req, String ownerUserId) {
+        Product p = new Product();
+        p.setName(s(req.name()));
+        p.setDescription(s(req.description()));
+        p.setPrice(req.price());
+        p.setQuantity(req.quantity());
+        p.setUserId(ownerUserId);
+        return p;
+    }
+
+    void checkSellerRole(Authentication auth) {
         if (auth == null || auth.getAuthorities() == null) {
             throw new AccessDeniedBusinessException("Only sellers can create, update, or delete products");
         }
@@ -1,5 +1,7 @@
 package service.product.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,9 +10,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import service.product.clients.MediaServiceClient;
+import service.product.models.Product;
 import service.product.mongo_repo.ProductRepository;
+import service.product.services.CatalogSnapshotService;
 
+import java.io.ByteArrayInputStream;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -20,7 +38,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest
 @AutoConfigureMockMvc
-@TestPropertySource(locations = "classpath:application-test.properties")
+@TestPropertySource(locations = "classpath:application-test.properties",
+    properties = "catalog.snapshot.gzip-min-bytes=0")
 class ProductRestControllerTest {
 
     @Autowired
@@ -29,10 +48,24 @@ class ProductRestControllerTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshot;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private MediaServiceClient mediaServiceClient;
+
     @BeforeEach
+    @SuppressWarnings("unchecked")
     void setUp() {
         // Clean the database before each test to ensure test isolation
         productRepository.deleteAll();
+        // Every product has a single media URL derived from its id
+        when(mediaServiceClient.getMediaUrlsByProductIds(anyCollection())).thenAnswer(invocation ->
+            ((Collection<String>) invocation.getArgument(0)).stream()
+                .collect(Collectors.toMap(Function.identity(), id -> List.of("/api/media/" + id))));
     }
 
     @Test
@@ -44,6 +77,22 @@ class ProductRestControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    void testGetAllProducts_WithAcceptEncoding_ShouldVaryOnEncoding() throws Exception {
+        // GET / is served from the pre-serialized catalog snapshot
+        MvcResult result = mockMvc.perform(get("/").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream json = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertArrayEquals(catalogSnapshot.current().json(), json.readAllBytes());
+        }
+    }
+
     @Test
     @WithMockUser(username = "testuser", roles = {"SELLER"})
     void testCreateProduct_WithValidData_ShouldReturnCreated() throws Exception {
@@ -100,6 +149,77 @@ class ProductRestControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testImportProducts_WithNdjson_ShouldReportInvalidRows() throws Exception {
+        String ndjson = """
+            {"name": "Imported One", "price": 10.0, "quantity": 1}
+            {"name": "Imported Two", "price": -1, "quantity": 1}
+            not json
+            """;
+
+        mockMvc.perform(post("/import")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[1].row").value(3));
+    }
+
+    @Test
+    @WithMockUser(username = "testuser", roles = {"SELLER"})
+    void testImportProducts_WithCsv_ShouldImportQuotedFields() throws Exception {
+        String csv = """
+            name,description,price,quantity
+            "Chair, oak","Solid ""oak"" chair",49.90,3
+            """;
+
+        mockMvc.perform(post("/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+    }
+
+    @Test
+    void testBatchLookup_WithUnknownIds_ShouldReturnEmptyList() throws Exception {
+        // GET /?ids= is public and omits ids that do not exist
+        mockMvc.perform(get("/").param("ids", "999999999999999999999999,888888888888888888888888"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void testGetProductsWithMedia_ShouldReturnOk() throws Exception {
+        productRepository.saveAll(IntStream.range(0, 250).mapToObj(i -> {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(1.0);
+            product.setQuantity(1);
+            product.setUserId("seller-1");
+            return product;
+        }).toList());
+        catalogSnapshot.withMedia();
+        clearInvocations(mediaServiceClient);
+        catalogSnapshot.refresh();
+
+        MvcResult result = mockMvc.perform(get("/with-media"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+        // Served again from the snapshot, without asking media-service a second time
+        mockMvc.perform(get("/with-media")).andExpect(status().isOk());
+
+        JsonNode products = objectMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(250, products.size());
+        products.forEach(p -> assertEquals("/api/media/" + p.get("id").asText(), p.get("mediaUrls").get(0).asText()));
+        // One media-service call per 200 products, made by the rebuild only
+        verify(mediaServiceClient, times(2)).getMediaUrlsByProductIds(anyCollection());
+    }
+
     @Test
     void testGetProductById_NonExistent_ShouldReturnNotFound() throws Exception {
         // GET /{id} is public - no authentication needed
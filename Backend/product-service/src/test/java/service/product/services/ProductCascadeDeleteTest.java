@@ -0,0 +1,104 @@
+package service.product.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import service.product.clients.MediaServiceClient;
+import service.product.models.Product;
+import service.product.mongo_repo.ProductRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AUDIT TEST: Product Cascade Delete Tests
+ * Tests for the chunked, parallel media cleanup when a user's products are deleted
+ */
+class ProductCascadeDeleteTest {
+
+    private static final String USER_ID = "seller-1";
+
+    private final ProductRepository repo = mock(ProductRepository.class);
+    private final MediaServiceClient mediaServiceClient = mock(MediaServiceClient.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(3);
+    private final ProductService service = new ProductService(repo, mediaServiceClient,
+        mock(ApplicationEventPublisher.class), executor, 100);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private List<String> givenProducts(int count) {
+        List<String> ids = IntStream.range(0, count).mapToObj(i -> "product-" + i).toList();
+        when(repo.findIdsByUserId(USER_ID)).thenReturn(ids.stream().map(id -> {
+            Product product = new Product();
+            product.setId(id);
+            return product;
+        }).toList());
+        return ids;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeleteAllByUserId_ShouldDeleteMediaInChunksBeforeProducts() {
+        List<String> ids = givenProducts(250);
+        List<List<String>> chunks = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean productsDeleted = new AtomicBoolean();
+        doAnswer(invocation -> {
+            assertFalse(productsDeleted.get(), "Products must outlive their media cleanup");
+            chunks.add(List.copyOf((List<String>) invocation.getArgument(0)));
+            return null;
+        }).when(mediaServiceClient).deleteAllMediaByProductIds(anyList());
+        when(repo.deleteByUserId(USER_ID)).thenAnswer(invocation -> {
+            productsDeleted.set(true);
+            return 250L;
+        });
+
+        service.deleteAllByUserId(USER_ID);
+
+        assertEquals(List.of(50, 100, 100), chunks.stream().map(List::size).sorted().toList());
+        // Every product exactly once, whichever chunk finished first
+        assertEquals(Set.copyOf(ids), chunks.stream().flatMap(List::stream).collect(Collectors.toSet()));
+        verify(repo).deleteByUserId(USER_ID);
+    }
+
+    @Test
+    void testDeleteAllByUserId_NoProducts_ShouldSkipMediaService() {
+        givenProducts(0);
+
+        service.deleteAllByUserId(USER_ID);
+
+        verifyNoInteractions(mediaServiceClient);
+        verify(repo).deleteByUserId(USER_ID);
+    }
+
+    @Test
+    void testDeleteAllByUserId_MediaServiceDown_ShouldStillDeleteProducts() {
+        // The real client logs media-service failures instead of throwing them
+        RestTemplate restTemplate = mock(RestTemplate.class);
+        when(restTemplate.postForObject(anyString(), any(), eq(Void.class)))
+            .thenThrow(new ResourceAccessException("media-service down"));
+        ProductService withRealClient = new ProductService(repo, new MediaServiceClient(restTemplate),
+            mock(ApplicationEventPublisher.class), executor, 100);
+        givenProducts(150);
+
+        assertDoesNotThrow(() -> withRealClient.deleteAllByUserId(USER_ID));
+
+        verify(restTemplate, times(2)).postForObject(anyString(), any(), eq(Void.class));
+        verify(repo).deleteByUserId(USER_ID);
+    }
+}
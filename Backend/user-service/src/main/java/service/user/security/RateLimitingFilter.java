@@ -11,6 +11,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 /**
  * Rate limiting filter to prevent brute force and spam attacks.
  * Applies different limits based on endpoint type.
@@ -58,30 +59,21 @@ public class RateLimitingFilter extends OncePerRequestFilter {
     private boolean checkRateLimit(String clientIp, ConcurrentHashMap<String, RateLimitData> rateLimitMap, 
                                    int maxRequests, String endpointType, HttpServletResponse response) throws IOException {
         RateLimitData rateLimitData = rateLimitMap.computeIfAbsent(clientIp, k -> new RateLimitData());
-        synchronized (rateLimitData) {
-            long currentTime = System.currentTimeMillis();
-            // Reset counter if time window has passed
-            if (currentTime - rateLimitData.windowStart > timeWindowMs) {
-                rateLimitData.requestCount.set(0);
-                rateLimitData.windowStart = currentTime;
-            }
-            // Check if limit exceeded
-            if (rateLimitData.requestCount.get() >= maxRequests) {
-                log.warn("Rate limit exceeded for {} from IP: {}, attempts: {}", 
-                    endpointType, clientIp, rateLimitData.requestCount.get());
-                response.setStatus(429); // Too Many Requests
-                response.setContentType("application/json");
-                response.getWriter().write(String.format(
-                    "{\"error\":\"Too many %s attempts. Maximum %d requests per minute. Please try again later.\"}",
-                    endpointType, maxRequests
-                ));
-                return false;
-            }
-            // Increment counter
-            rateLimitData.requestCount.incrementAndGet();
-            log.debug("{} request allowed for IP: {}, count: {}/{}", 
-                endpointType, clientIp, rateLimitData.requestCount.get(), maxRequests);
+        // Only the counter update is done under the lock; logging and the response happen outside it
+        int count = rateLimitData.tryIncrement(maxRequests, timeWindowMs);
+        if (count < 0) {
+            log.warn("Rate limit exceeded for {} from IP: {}, attempts: {}/{}",
+                endpointType, clientIp, -count, maxRequests);
+            response.setStatus(429); // Too Many Requests
+            response.setContentType("application/json");
+            response.getWriter().write(String.format(
+                "{\"error\":\"Too many %s attempts. Maximum %d requests per minute. Please try again later.\"}",
+                endpointType, maxRequests
+            ));
+            return false;
         }
+        log.debug("{} request allowed for IP: {}, count: {}/{}", 
+            endpointType, clientIp, count, maxRequests);
         return true;
     }
     /**
@@ -113,7 +105,30 @@ public class RateLimitingFilter extends OncePerRequestFilter {
      * Data class to store rate limiting information per IP.
      */
     private static class RateLimitData {
+        // A lock rather than synchronized: a virtual thread blocking inside a monitor pins its carrier
+        private final ReentrantLock lock = new ReentrantLock();
         AtomicInteger requestCount = new AtomicInteger(0);
-        long windowStart = System.currentTimeMillis();
+        volatile long windowStart = System.currentTimeMillis();
+
+        /**
+         * Counts a request in the current window, starting a new window if it has passed.
+         * Returns the new count, negated if it is over the limit and the request must be rejected.
+         */
+        int tryIncrement(int maxRequests, long windowMs) {
+            lock.lock();
+            try {
+                long currentTime = System.currentTimeMillis();
+                // Reset counter if time window has passed
+                if (currentTime - windowStart > windowMs) {
+                    requestCount.set(0);
+                    windowStart = currentTime;
+                }
+                // Rejected requests are counted too, so the log shows how hard a client is pushing
+                int count = requestCount.incrementAndGet();
+                return count > maxRequests ? -count : count;
+            } finally {
+                lock.unlock();
+            }
+        }
     }
 }
@@ -2,7 +2,7 @@ import { Component, inject, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Router } from '@angular/router';
-import { forkJoin, Observable, of } from 'rxjs';
+import { Observable, of } from 'rxjs';
 import { catchError, concatMap } from 'rxjs/operators';
 import { OrderService } from '../../services/order.service';
 import { ProductService } from '../../services/product.service';
@@ -84,17 +84,13 @@ export class CartComponent implements OnInit {
     const uniqueProductIds = [...new Set(items.map(i => i.productId))];
     if (uniqueProductIds.length === 0) return;
 
-    const requests = uniqueProductIds.map(id =>
-      this.productService.getProduct(id).pipe(catchError(() => of(null)))
-    );
-
-    forkJoin(requests).subscribe(products => {
-      products.forEach((product, idx) => {
-        if (product) {
-          this.productStock[uniqueProductIds[idx]] = product.quantity;
-        }
+    this.productService.getProductsByIds(uniqueProductIds)
+      .pipe(catchError(() => of([])))
+      .subscribe(products => {
+        products.forEach(product => {
+          this.productStock[product.id] = product.quantity;
+        });
       });
-    });
   }
 
   updateQuantity(order: OrderResponse, qty: number) {
@@ -19,7 +19,8 @@ export class MediaGalleryComponent implements OnInit {
   uploadSuccess: boolean = false;
   previewUrl: string | null = null;
 
-  private readonly MAX_FILE_SIZE = 2 * 1024 * 1024;
+  // Must match media.upload.multipart.max-size in media-service
+  readonly MAX_FILE_SIZE = 2 * 1024 * 1024;
   private readonly ALLOWED_TYPES = ['image/png', 'image/jpeg', 'image/gif'];
 
   constructor(private readonly mediaService: MediaService) {}
@@ -43,7 +44,7 @@ export class MediaGalleryComponent implements OnInit {
 
       // Validate file size
       if (file.size > this.MAX_FILE_SIZE) {
-        this.uploadMessage = `❌ File size exceeds 2MB limit. Your file is ${this.formatBytes(file.size)}.`;
+        this.uploadMessage = `❌ File size exceeds ${this.formatBytes(this.MAX_FILE_SIZE)} limit. Your file is ${this.formatBytes(file.size)}.`;
         this.uploadSuccess = false;
         this.selectedFile = null;
         this.previewUrl = null;
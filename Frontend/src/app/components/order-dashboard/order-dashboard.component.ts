@@ -1,7 +1,10 @@
 import { Component, inject, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
+import { of } from 'rxjs';
+import { catchError } from 'rxjs/operators';
 import { OrderService } from '../../services/order.service';
+import { ProductService } from '../../services/product.service';
 import { UserService } from '../../services/user.service';
 import { OrderResponse } from '../../models/order.model';
 
@@ -14,6 +17,7 @@ import { OrderResponse } from '../../models/order.model';
 })
 export class OrderDashboardComponent implements OnInit {
   private readonly orderService = inject(OrderService);
+  private readonly productService = inject(ProductService);
   private readonly userService = inject(UserService);
 
   orders: OrderResponse[] = [];
@@ -21,6 +25,9 @@ export class OrderDashboardComponent implements OnInit {
   error = '';
   actionLoading: { [orderId: string]: boolean } = {};
   reorderQty: { [orderId: string]: number } = {};
+  /** Maps productId -> current available stock, for the products in the order history */
+  productStock: { [productId: string]: number } = {};
+  stockLoaded = false;
 
   get activeOrders(): OrderResponse[] {
     return this.orders.filter(o => o.status === 'STARTED' || o.status === 'ONGOING');
@@ -40,11 +47,33 @@ export class OrderDashboardComponent implements OnInit {
         this.orders = orders;
         orders.forEach((o: OrderResponse) => { if (!this.reorderQty[o.id]) this.reorderQty[o.id] = o.quantity; });
         this.loading = false;
+        this.loadStocks(this.historyOrders);
       },
       error: () => { this.error = 'Failed to load orders.'; this.loading = false; }
     });
   }
 
+  // One batch lookup for every product in the history instead of one GET per order
+  private loadStocks(orders: OrderResponse[]) {
+    const uniqueProductIds = [...new Set(orders.map(o => o.productId))];
+    if (uniqueProductIds.length === 0) return;
+
+    this.productService.getProductsByIds(uniqueProductIds)
+      .pipe(catchError(() => of(null)))
+      .subscribe(products => {
+        // If the lookup fails, reorder stays enabled and the server checks stock as before
+        if (!products) return;
+        this.productStock = {};
+        products.forEach(product => { this.productStock[product.id] = product.quantity; });
+        this.stockLoaded = true;
+      });
+  }
+
+  /** Deleted or sold out products cannot be reordered */
+  canReorder(order: OrderResponse): boolean {
+    return !this.stockLoaded || (this.productStock[order.productId] ?? 0) > 0;
+  }
+
   markDelivered(order: OrderResponse) {
     this.actionLoading[order.id] = true;
     this.orderService.markDelivered(order.id).subscribe({
@@ -3,12 +3,9 @@ import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Router } from '@angular/router';
 import { ProductService } from '../../services/product.service';
-import { MediaService } from '../../services/media.service';
 import { OrderService } from '../../services/order.service';
 import { UserService } from '../../services/user.service';
-import { ProductResponse } from '../../models/product.model';
-import { forkJoin, of } from 'rxjs';
-import { map, catchError } from 'rxjs/operators';
+import { ProductResponse, ProductWithMediaResponse } from '../../models/product.model';
 
 // Extended product interface for display
 interface ProductWithMedia extends ProductResponse {
@@ -24,7 +21,6 @@ interface ProductWithMedia extends ProductResponse {
 })
 export class ProductsComponent implements OnInit, OnDestroy {
   private readonly productService = inject(ProductService);
-  private readonly mediaService = inject(MediaService);
   private readonly orderService = inject(OrderService);
   private readonly userService = inject(UserService);
   private readonly router = inject(Router);
@@ -68,45 +64,18 @@ export class ProductsComponent implements OnInit, OnDestroy {
     this.loading = true;
     this.error = '';
 
-    this.productService.getAllProducts().subscribe({
-      next: (products: ProductResponse[]) => {
-        this.loadProductsWithMedia(products);
-      },
-      error: (_err: unknown) => {
-        this.error = 'Failed to load products';
-        this.loading = false;
-      }
-    });
-  }
-
-  private loadProductsWithMedia(products: ProductResponse[]) {
-    if (products.length === 0) {
-      this.products = [];
-      this.filteredProducts = [];
-      this.loading = false;
-      return;
-    }
-
-    // For each product, fetch its media
-    const mediaRequests = products.map(product =>
-      this.mediaService.getMediaByProductId(product.id).pipe(
-        map((mediaList: any[]) => ({
+    // Products and their media come back together, resolved with one batched media lookup
+    this.productService.getAllProductsWithMedia().subscribe({
+      next: (products: ProductWithMediaResponse[]) => {
+        this.products = products.map(({ mediaUrls, ...product }) => ({
           ...product,
-          imageUrl: mediaList.length > 0 ? mediaList[0].downloadUrl : undefined
-        })),
-        catchError(() => of({ ...product, imageUrl: undefined }))
-      )
-    );
-
-    forkJoin(mediaRequests).subscribe({
-      next: (productsWithMedia: ProductWithMedia[]) => {
-        this.products = productsWithMedia;
+          imageUrl: mediaUrls.length > 0 ? `${mediaUrls[0]}?size=thumb` : undefined
+        }));
         this.applyFilters();
         this.loading = false;
       },
-      error: () => {
-        this.products = products.map(p => ({ ...p, imageUrl: undefined }));
-        this.applyFilters();
+      error: (_err: unknown) => {
+        this.error = 'Failed to load products';
         this.loading = false;
       }
     });
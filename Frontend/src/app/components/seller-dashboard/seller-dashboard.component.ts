@@ -7,9 +7,6 @@ import { UserService } from '../../services/user.service';
 import { MediaService } from '../../services/media.service';
 import { OrderService } from '../../services/order.service';
 import { ProductRequest, ProductResponse } from '../../models/product.model';
-import { OrderResponse } from '../../models/order.model';
-import { forkJoin, of } from 'rxjs';
-import { map, catchError } from 'rxjs/operators';
 
 // Extended product interface for display
 interface ProductWithMedia extends ProductResponse {
@@ -51,7 +48,7 @@ export class SellerDashboardComponent implements OnInit {
   loading = false;
   error = '';
 
-  // Seller statistics (placeholder data - will be populated from backend later)
+  // Seller statistics, loaded from order-service
   sellerStats: SellerStatistics = {
     totalRevenue: 0,
     totalSales: 0,
@@ -83,102 +80,45 @@ export class SellerDashboardComponent implements OnInit {
   }
 
   private loadSellerStats(): void {
-    // Get live moneyReceived from profile
-    this.userService.getProfile().subscribe({
-      next: (user) => {
-        this.sellerStats.totalRevenue = user.moneyReceived ?? 0;
-      },
-      error: () => {}
-    });
-
-    // Build best-selling product breakdown from delivered orders
-    this.orderService.getSellerOrders().subscribe({
-      next: (orders) => {
-        const delivered = orders.filter(o => o.status === 'DELIVERED');
-        this.sellerStats = this.computeSellerStats(delivered);
+    // Totals and best sellers come precomputed from order-service
+    this.orderService.getSellerStats().subscribe({
+      next: (stats) => {
+        this.sellerStats = {
+          totalRevenue: stats.revenueDelivered,
+          totalSales: stats.unitsDelivered,
+          bestSellingProducts: stats.bestSellers.map(p => ({
+            id: p.productId,
+            name: p.name,
+            price: p.units > 0 ? p.revenue / p.units : 0,
+            unitsSold: p.units,
+            totalRevenue: p.revenue
+          }))
+        };
       },
       error: () => {}
     });
   }
 
-  private computeSellerStats(orders: OrderResponse[]): SellerStatistics {
-    const map = new Map<string, BestSellingProduct>();
-
-    for (const order of orders) {
-      const unitPrice = order.quantity > 0 ? order.totalPrice / order.quantity : 0;
-      const existing = map.get(order.productId);
-      if (existing) {
-        existing.unitsSold += order.quantity;
-        existing.totalRevenue += order.totalPrice;
-      } else {
-        map.set(order.productId, {
-          id: order.productId,
-          name: order.productName,
-          price: unitPrice,
-          unitsSold: order.quantity,
-          totalRevenue: order.totalPrice
-        });
-      }
-    }
-
-    const products = Array.from(map.values())
-      .sort((a, b) => b.totalRevenue - a.totalRevenue)
-      .slice(0, 5);
-
-    const totalSales = orders.reduce((sum, o) => sum + o.quantity, 0);
-    const totalRevenue = orders.reduce((sum, o) => sum + o.totalPrice, 0);
-
-    return { totalRevenue, totalSales, bestSellingProducts: products };
-  }
-
   loadProducts() {
     this.loading = true;
     this.error = '';
 
-    this.productService.getMyProducts().subscribe({
+    // Products and their media come back together, resolved with one batched media lookup
+    this.productService.getMyProductsWithMedia().subscribe({
       next: (products) => {
-        // Load media for each product
-        this.loadProductsWithMedia(products);
-      },
-      error: () => {
-        this.error = 'Failed to load products';
-        this.loading = false;
-      }
-    });
-  }
-
-  private loadProductsWithMedia(products: ProductResponse[]) {
-    if (products.length === 0) {
-      this.products = [];
-      this.loading = false;
-      return;
-    }
-
-    // For each product, fetch its media
-    const mediaRequests = products.map(product =>
-      this.mediaService.getMediaByProductId(product.id).pipe(
-        map(mediaList => ({
+        this.products = products.map(({ mediaUrls, ...product }) => ({
           ...product,
-          imageUrl: mediaList.length > 0 ? mediaList[0].downloadUrl : undefined
-        })),
-        catchError(() => of({ ...product, imageUrl: undefined }))
-      )
-    );
-
-    forkJoin(mediaRequests).subscribe({
-      next: (productsWithMedia) => {
-        this.products = productsWithMedia;
+          imageUrl: mediaUrls.length > 0 ? `${mediaUrls[0]}?size=thumb` : undefined
+        }));
         this.loading = false;
       },
       error: () => {
-        // If media loading fails, still show products without images
-        this.products = products.map(p => ({ ...p, imageUrl: undefined }));
+        this.error = 'Failed to load products';
         this.loading = false;
       }
     });
   }
 
-
   openCreateForm() {
     this.showForm = true;
     this.editingProduct = null;
@@ -2,6 +2,12 @@ export interface Media {
   id: string;
   productId?: string;
   downloadUrl: string;
+  contentType?: string;
+  size?: number;
+  createdAt?: string;
+  width?: number;
+  height?: number;
+  placeholder?: string; // data URI of a tiny preview, shown blurred while the image loads
 }
 
 export interface MediaUploadResponse {
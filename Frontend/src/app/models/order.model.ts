@@ -22,3 +22,26 @@ export interface UpdateQuantityRequest {
   quantity: number;
 }
 
+
+export interface DailySales {
+  date: string;
+  orders: number;
+  revenue: number;
+}
+
+export interface ProductSales {
+  productId: string;
+  name: string;
+  units: number;
+  revenue: number;
+}
+
+// Seller dashboard totals, maintained by order-service as orders change status
+export interface SellerStatsResponse {
+  ordersByStatus: Record<OrderStatus, number>;
+  revenueDelivered: number;
+  revenuePending: number;
+  unitsDelivered: number;
+  last30Days: DailySales[];
+  bestSellers: ProductSales[];
+}
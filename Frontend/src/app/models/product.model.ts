@@ -15,6 +15,20 @@ export interface ProductResponse {
   userId: string;
 }
 
+// Product with its media URLs, as returned by /products/with-media
+export interface ProductWithMediaResponse extends ProductResponse {
+  mediaUrls: string[];
+}
+
+// Compact product returned by batch lookups (GET /products?ids=...)
+export interface ProductSummary {
+  id: string;
+  name: string;
+  price: number;
+  quantity: number;
+  userId: string;
+}
+
 // Extended interface with media for display purposes
 export interface ProductWithMedia extends ProductResponse {
   imageUrl?: string; // URL of the first media item for this product
@@ -1,7 +1,7 @@
 import { Injectable, inject } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { environment } from '../environment';
-import { OrderRequest, OrderResponse, UpdateQuantityRequest } from '../models/order.model';
+import { OrderRequest, OrderResponse, SellerStatsResponse, UpdateQuantityRequest } from '../models/order.model';
 import { Observable } from 'rxjs';
 
 @Injectable({ providedIn: 'root' })
@@ -29,6 +29,11 @@ export class OrderService {
     return this.http.get<OrderResponse[]>(`${this.base}/orders/seller-orders`);
   }
 
+  // Seller: dashboard totals in one request
+  getSellerStats(): Observable<SellerStatsResponse> {
+    return this.http.get<SellerStatsResponse>(`${this.base}/orders/seller-stats`);
+  }
+
   // Update quantity (buyer, STARTED orders only)
   updateQuantity(orderId: string, req: UpdateQuantityRequest): Observable<OrderResponse> {
     return this.http.patch<OrderResponse>(`${this.base}/orders/${orderId}/quantity`, req);
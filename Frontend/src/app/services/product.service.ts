@@ -1,8 +1,12 @@
 import { Injectable, inject } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { environment } from '../environment';
-import { ProductRequest, ProductResponse } from '../models/product.model';
-import { Observable } from 'rxjs';
+import { ProductRequest, ProductResponse, ProductSummary, ProductWithMediaResponse } from '../models/product.model';
+import { Observable, forkJoin, of } from 'rxjs';
+import { map } from 'rxjs/operators';
+
+// The most ids product-service resolves in one batch lookup
+const MAX_IDS_PER_LOOKUP = 200;
 
 @Injectable({ providedIn: 'root' })
 export class ProductService {
@@ -14,16 +18,37 @@ export class ProductService {
     return this.http.get<ProductResponse[]>(`${this.base}/products`);
   }
 
+  // Public endpoint - all products with their media URLs in one request
+  getAllProductsWithMedia(): Observable<ProductWithMediaResponse[]> {
+    return this.http.get<ProductWithMediaResponse[]>(`${this.base}/products/with-media`);
+  }
+
   // Public endpoint - get single product
   getProduct(id: string): Observable<ProductResponse> {
     return this.http.get<ProductResponse>(`${this.base}/products/${id}`);
   }
 
+  // Public endpoint - resolve many products, one request per MAX_IDS_PER_LOOKUP ids
+  getProductsByIds(ids: string[]): Observable<ProductSummary[]> {
+    if (ids.length === 0) return of([]);
+    const requests: Observable<ProductSummary[]>[] = [];
+    for (let from = 0; from < ids.length; from += MAX_IDS_PER_LOOKUP) {
+      const chunk = ids.slice(from, from + MAX_IDS_PER_LOOKUP);
+      requests.push(this.http.get<ProductSummary[]>(`${this.base}/products`, { params: { ids: chunk.join(',') } }));
+    }
+    return forkJoin(requests).pipe(map(chunks => chunks.flat()));
+  }
+
   // Authenticated - get current user's products
   getMyProducts(): Observable<ProductResponse[]> {
     return this.http.get<ProductResponse[]>(`${this.base}/products/my-products`);
   }
 
+  // Authenticated - current user's products with their media URLs
+  getMyProductsWithMedia(): Observable<ProductWithMediaResponse[]> {
+    return this.http.get<ProductWithMediaResponse[]>(`${this.base}/products/my-products/with-media`);
+  }
+
   // Authenticated - create product (seller only)
   createProduct(product: ProductRequest): Observable<ProductResponse> {
     return this.http.post<ProductResponse>(`${this.base}/products`, product);
@@ -0,0 +1,48 @@
+// Compares the blocking (default) and reactive order-service under the same memory limit.
+//
+// Each iteration adds a product to the cart, places the order (balance and stock checks,
+// then wallet and stock updates on the other services) and reads the cart back. Run once
+// per mode against the service directly, with the same container memory limit and JAVA_OPTS,
+// and compare http_reqs, http_req_duration p(95) and the container's peak memory:
+//
+//   SPRING_PROFILES_ACTIVE=          ->  k6 run load-tests/order-service.js
+//   SPRING_PROFILES_ACTIVE=reactive  ->  k6 run load-tests/order-service.js
+//
+// Required: TOKEN (a CLIENT's JWT with enough balance) and PRODUCT_ID (a product with stock).
+// Options: BASE_URL (default http://localhost:8084), VUS (default 400), DURATION (default 1m).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8084';
+const HEADERS = {
+  Authorization: `Bearer ${__ENV.TOKEN}`,
+  'Content-Type': 'application/json',
+};
+
+export const options = {
+  scenarios: {
+    checkout: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 400),
+      duration: __ENV.DURATION || '1m',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+export default function () {
+  const added = http.post(`${BASE_URL}/api/orders`,
+    JSON.stringify({ productId: __ENV.PRODUCT_ID, quantity: 1 }), { headers: HEADERS });
+  check(added, { 'added to cart': (r) => r.status === 201 });
+  if (added.status !== 201) {
+    return;
+  }
+
+  const placed = http.patch(`${BASE_URL}/api/orders/${added.json('id')}/place`, null, { headers: HEADERS });
+  check(placed, { 'order placed': (r) => r.status === 200 });
+
+  const cart = http.get(`${BASE_URL}/api/orders/cart`, { headers: HEADERS });
+  check(cart, { 'cart read': (r) => r.status === 200 });
+}
@@ -0,0 +1,33 @@
+// Compares platform-thread and virtual-thread request handling in product-service.
+//
+// GET /with-media blocks on MongoDB and then on a call to media-service, so throughput is
+// limited by how many requests can wait at once. Run once per mode against the service
+// directly (not through the gateway) and compare http_reqs and http_req_duration p(95):
+//
+//   VIRTUAL_THREADS_ENABLED=false  ->  k6 run load-tests/virtual-threads.js
+//   VIRTUAL_THREADS_ENABLED=true   ->  k6 run load-tests/virtual-threads.js
+//
+// Options: BASE_URL (default http://localhost:8082), VUS (default 800, above Tomcat's
+// default of 200 worker threads), DURATION (default 1m).
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8082';
+
+export const options = {
+  scenarios: {
+    with_media: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 800),
+      duration: __ENV.DURATION || '1m',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+export default function () {
+  const res = http.get(`${BASE_URL}/with-media`);
+  check(res, { 'status is 200': (r) => r.status === 200 });
+}